@@ -0,0 +1,91 @@
+package org.acme.accounts.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.accounts.Account;
+import org.acme.banking.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Balance arithmetic and the equals/hashCode of Account, which hash the balance. The BigDecimal
+ * benchmarks replay the same postings on the representation Account used before Money.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountBenchmark {
+
+	private Account account;
+	private Account copy;
+	private Money amount;
+	private String amountText;
+	private BigDecimal decimalBalance;
+	private BigDecimal decimalAmount;
+
+	@Setup
+	public void setUp() {
+		account = account();
+		copy = account();
+		amount = Money.parse("23.82");
+		amountText = "23.82";
+		decimalBalance = new BigDecimal("3499.12");
+		decimalAmount = new BigDecimal("23.82");
+	}
+
+	@Benchmark
+	public Money depositAndWithdraw() {
+		account.addFunds(amount);
+		account.withdrawFunds(amount);
+		return account.balance();
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalDepositAndWithdraw() {
+		decimalBalance = decimalBalance.add(decimalAmount);
+		decimalBalance = decimalBalance.subtract(decimalAmount);
+		return decimalBalance;
+	}
+
+	@Benchmark
+	public Money parseAmount() {
+		return Money.parse(amountText);
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalParseAmount() {
+		return new BigDecimal(amountText);
+	}
+
+	@Benchmark
+	public int accountHashCode() {
+		return account.hashCode();
+	}
+
+	@Benchmark
+	public boolean accountEquals() {
+		return account.equals(copy);
+	}
+
+	private static Account account() {
+		Account account = new Account();
+		account.setAccountNumber(444666L);
+		account.setCustomerNumber(332233L);
+		account.setCustomerName("Billie Piper");
+		account.setBalance(new BigDecimal("3499.12"));
+		account.setOverdraftLimit(new BigDecimal("-200.00"));
+		return account;
+	}
+}
@@ -0,0 +1,102 @@
+package org.acme.accounts.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.accounts.Account;
+import org.acme.accounts.MoneyConverter;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The lookup AccountRepository.findByAccountNumber performs, against an in-memory H2 database with
+ * plain Hibernate ORM rather than a Quarkus application. The second-level cache is off, so this is
+ * the cost of a cache miss; an HQL query is measured alongside as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountRepositoryBenchmark {
+
+	private static final long FIRST_ACCOUNT = 1_000_000_000L;
+
+	@Param({ "10000", "100000" })
+	int rows;
+
+	private SessionFactory sessionFactory;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		sessionFactory = new Configuration()
+				.addAnnotatedClass(Account.class)
+				.addAttributeConverter(MoneyConverter.class, true)
+				.setProperty("hibernate.connection.url", "jdbc:h2:mem:accounts;DB_CLOSE_DELAY=-1")
+				.setProperty("hibernate.connection.username", "sa")
+				.setProperty("hibernate.connection.password", "")
+				.setProperty("hibernate.hbm2ddl.auto", "create-drop")
+				.setProperty("hibernate.hbm2ddl.import_files", "")
+				.setProperty("hibernate.cache.use_second_level_cache", "false")
+				.setProperty("hibernate.bytecode.provider", "none")
+				.setProperty("hibernate.jdbc.batch_size", "50")
+				.buildSessionFactory();
+
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			Transaction transaction = session.beginTransaction();
+			for (int i = 0; i < rows; i++) {
+				Account account = new Account();
+				account.setAccountNumber(FIRST_ACCOUNT + i);
+				account.setCustomerNumber(2_000_000_000L + i % 50_000);
+				account.setCustomerName("Benchmark " + i);
+				account.setBalance(new BigDecimal("100.00"));
+				account.setOverdraftLimit(new BigDecimal("-200.00"));
+				session.insert(account);
+			}
+			transaction.commit();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		sessionFactory.close();
+	}
+
+	@Benchmark
+	public Account findByNaturalId() {
+		try (Session session = sessionFactory.openSession()) {
+			return session.bySimpleNaturalId(Account.class).load(randomAccountNumber());
+		}
+	}
+
+	@Benchmark
+	public Account findByQuery() {
+		try (Session session = sessionFactory.openSession()) {
+			return session.createSelectionQuery("from Account where accountNumber = :accountNumber", Account.class)
+					.setParameter("accountNumber", randomAccountNumber())
+					.getSingleResultOrNull();
+		}
+	}
+
+	private long randomAccountNumber() {
+		return FIRST_ACCOUNT + ThreadLocalRandom.current().nextInt(rows);
+	}
+}
@@ -0,0 +1,60 @@
+package org.acme.accounts.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.accounts.AccountStatus;
+import org.acme.accounts.AccountTable;
+import org.acme.accounts.AccountView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read model lookups against a boxed HashMap holding the same views.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountTableBenchmark {
+
+	@Param({ "100000", "1000000" })
+	int accounts;
+
+	private AccountTable table;
+	private Map<Long, AccountView> map;
+
+	@Setup
+	public void setUp() {
+		table = new AccountTable(accounts);
+		map = new HashMap<>();
+		for (long accountNumber = 1; accountNumber <= accounts; accountNumber++) {
+			table.put(accountNumber, accountNumber % 1000, accountNumber * 100, AccountTable.NO_LIMIT, AccountStatus.OPEN, 0);
+			map.put(accountNumber, new AccountView(accountNumber, accountNumber % 1000, accountNumber * 100, null,
+					AccountStatus.OPEN));
+		}
+	}
+
+	@Benchmark
+	public long tableBalance() {
+		return table.get(1 + ThreadLocalRandom.current().nextLong(accounts)).balance();
+	}
+
+	@Benchmark
+	public long hashMapBalance() {
+		return map.get(1 + ThreadLocalRandom.current().nextLong(accounts)).balance();
+	}
+}
@@ -0,0 +1,81 @@
+package org.acme.accounts.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.accounts.Account;
+import org.acme.banking.Money;
+import org.acme.banking.events.Overdrawn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+/**
+ * JSON-B (Yasson) round trips of the REST representation of Account and the Overdrawn Kafka payload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonbBenchmark {
+
+	private Jsonb jsonb;
+	private Account account;
+	private String accountJson;
+	private Overdrawn overdrawn;
+	private String overdrawnJson;
+
+	@Setup
+	public void setUp() {
+		jsonb = JsonbBuilder.create();
+
+		account = new Account();
+		account.setAccountNumber(78790L);
+		account.setCustomerNumber(444222L);
+		account.setCustomerName("Vanna White");
+		account.setBalance(new BigDecimal("-5584.81"));
+		account.setOverdraftLimit(new BigDecimal("-200.00"));
+		accountJson = jsonb.toJson(account);
+
+		overdrawn = new Overdrawn(78790L, 444222L, Money.parse("-5584.81"), Money.parse("-200.00"));
+		overdrawnJson = jsonb.toJson(overdrawn);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		jsonb.close();
+	}
+
+	@Benchmark
+	public String serializeAccount() {
+		return jsonb.toJson(account);
+	}
+
+	@Benchmark
+	public Account deserializeAccount() {
+		return jsonb.fromJson(accountJson, Account.class);
+	}
+
+	@Benchmark
+	public String serializeOverdrawn() {
+		return jsonb.toJson(overdrawn);
+	}
+
+	@Benchmark
+	public Overdrawn deserializeOverdrawn() {
+		return jsonb.fromJson(overdrawnJson, Overdrawn.class);
+	}
+}
@@ -3,23 +3,68 @@ package org.acme.accounts;
 import java.math.BigDecimal;
 import java.util.Objects;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import org.acme.banking.Money;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 
+/**
+ * An account row holds the balance as of its {@code postingSequence}, which {@link Ledger} only
+ * moves forward every {@code ledger.snapshot.interval} postings. The current balance is that
+ * balance plus the ledger entries posted since, which the repositories load alongside the row as
+ * the account's tail, so a posting inserts a ledger entry and leaves the row alone.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(indexes = @Index(name = "account_customer_number_idx", columnList = "customerNumber"))
 public class Account {
+	// Ids are handed out in blocks of ID_ALLOCATION_SIZE; AccountImporter reserves blocks from the same sequence
+	static final String ID_SEQUENCE = "hibernate_sequence";
+	static final int ID_ALLOCATION_SIZE = 50;
+
 	@Id
-	@GeneratedValue
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_id")
+	@SequenceGenerator(name = "account_id", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 
+	@NaturalId
 	private Long accountNumber;
 	private Long customerNumber;
 	private String customerName;
-	private BigDecimal balance;
-	private BigDecimal overdraftLimit;
+	private Money balance;
+	private Money overdraftLimit;
 	private AccountStatus accountStatus = AccountStatus.OPEN;
+	private long postingSequence;
+	// The ledger entries after postingSequence; null for a loaded account until its repository projects it
+	@Transient
+	private Money tail = Money.ZERO;
+	@Transient
+	private long lastSequence;
+	// Number of AccountSlot sub-balances taking this account's deposits, null unless the account is hot
+	private Integer hotSlots;
+
+	@Version
+	private long version;
+
+	// Postings through transact and the batch endpoint are refused outright while the account is overdrawn
+	public boolean acceptsPostings() {
+		return accountStatus != AccountStatus.OVERDRAWN;
+	}
 
 	public void markOverdrawn() {
 		accountStatus = AccountStatus.OVERDRAWN;
@@ -29,18 +74,84 @@ public class Account {
 		accountStatus = AccountStatus.OPEN;
 	}
 
+	public void changeOverdraftLimit(Money limit) {
+		overdraftLimit = limit;
+	}
+
+	public void markHot(int slots) {
+		hotSlots = slots;
+	}
+
+	public void removeHotStatus() {
+		hotSlots = null;
+	}
+
+	// Callers post the balance away through the ledger first; the row then records the closing balance
 	public void close() {
 		accountStatus = AccountStatus.CLOSED;
-		balance = BigDecimal.valueOf(0);
+		fold();
 	}
 
-	public void withdrawFunds(BigDecimal amount) {
-		balance = balance.subtract(amount);
+	public void withdrawFunds(Money amount) {
+		tail = projectedTail().minus(amount);
 	}
 
-	public BigDecimal addFunds(BigDecimal amount) {
-		balance = balance.add(amount);
-		return balance;
+	public Money addFunds(Money amount) {
+		tail = projectedTail().plus(amount);
+		return balance();
+	}
+
+	@PostLoad
+	void loaded() {
+		tail = null;
+		lastSequence = postingSequence;
+	}
+
+	/**
+	 * Sets the sum of the ledger entries posted after the row's {@code postingSequence} and the
+	 * sequence of the last of them. Called by the repositories that load accounts.
+	 */
+	public void project(Money tail, long lastSequence) {
+		this.tail = tail;
+		this.lastSequence = lastSequence;
+	}
+
+	public boolean projected() {
+		return tail != null;
+	}
+
+	// Moves the row's balance up to the last posting; the only place postings change the row
+	void fold() {
+		balance = balance();
+		tail = Money.ZERO;
+		postingSequence = lastSequence;
+	}
+
+	long version() {
+		return version;
+	}
+
+	// Package-private like setPostingSequence; only the replica mapping sets it
+	void setVersion(long version) {
+		this.version = version;
+	}
+
+	long nextPostingSequence() {
+		return ++lastSequence;
+	}
+
+	// Grows with every change: postings advance the sequence and row updates the version
+	long revision() {
+		return version + lastSequence;
+	}
+
+	// Accessors for the domain logic; the BigDecimal getters below are the JSON representation
+	public Money balance() {
+		return balance == null ? null : balance.plus(projectedTail());
+	}
+
+	public Money overdraftLimit() {
+		return overdraftLimit;
 	}
 
 	public Long getAccountNumber() {
@@ -52,7 +163,26 @@ public class Account {
 	}
 
 	public BigDecimal getBalance() {
-		return balance;
+		Money current = balance();
+		return current == null ? null : current.toBigDecimal();
+	}
+
+	public long getPostingSequence() {
+		return lastSequence;
+	}
+
+	// Not public, so JSON-B never binds it from a request body; only the replica mapping sets it
+	void setPostingSequence(long postingSequence) {
+		this.postingSequence = postingSequence;
+		this.lastSequence = postingSequence;
+	}
+
+	public Integer getHotSlots() {
+		return hotSlots;
+	}
+
+	void setHotSlots(Integer hotSlots) {
+		this.hotSlots = hotSlots;
 	}
 
 	public AccountStatus getAccountStatus() {
@@ -76,7 +206,7 @@ public class Account {
 	}
 
 	public void setBalance(BigDecimal balance) {
-		this.balance = balance;
+		this.balance = balance == null ? null : Money.of(balance);
 	}
 
 	public void setAccountStatus(AccountStatus accountStatus) {
@@ -94,16 +224,23 @@ public class Account {
 	
 
 	public BigDecimal getOverdraftLimit() {
-		return overdraftLimit;
+		return overdraftLimit == null ? null : overdraftLimit.toBigDecimal();
 	}
 
 	public void setOverdraftLimit(BigDecimal overdraftLimit) {
-		this.overdraftLimit = overdraftLimit;
+		this.overdraftLimit = overdraftLimit == null ? null : Money.of(overdraftLimit);
+	}
+
+	private Money projectedTail() {
+		if (tail == null) {
+			throw new IllegalStateException("Account " + accountNumber + " was loaded without its ledger tail");
+		}
+		return tail;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(accountNumber, accountStatus, balance, customerName, customerNumber);
+		return Objects.hash(accountNumber, accountStatus, balance(), customerName, customerNumber);
 	}
 
 	@Override
@@ -116,7 +253,7 @@ public class Account {
 			return false;
 		Account other = (Account) obj;
 		return Objects.equals(accountNumber, other.accountNumber) && accountStatus == other.accountStatus
-				&& Objects.equals(balance, other.balance) && Objects.equals(customerName, other.customerName)
+				&& Objects.equals(balance(), other.balance()) && Objects.equals(customerName, other.customerName)
 				&& Objects.equals(customerNumber, other.customerNumber);
 	}
 
@@ -0,0 +1,119 @@
+package org.acme.accounts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.acme.banking.InvalidAmountException;
+import org.acme.banking.Money;
+import org.acme.banking.events.Overdrawn;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+@ApplicationScoped
+public class AccountBatchService {
+
+	@Inject
+	AccountRepository accountRepository;
+
+	@Inject
+	Event<AccountChanged> accountChanged;
+
+	@Inject
+	Outbox outbox;
+
+	@Inject
+	Ledger ledger;
+
+	@Inject
+	CustomerSummaryRepository customerSummaryRepository;
+
+	@Inject
+	HotAccounts hotAccounts;
+
+	// Every posting is applied in one transaction; the ledger entries are flushed as JDBC batches on commit
+	@Transactional
+	public List<PostingResult> apply(List<Posting> postings) {
+		Map<Long, Account> accounts = new HashMap<>();
+		for (Account account : accountRepository.findByAccountNumbers(
+				postings.stream().map(p -> p.accountNumber).filter(Objects::nonNull).distinct().toList())) {
+			if (account != null) {
+				accounts.put(account.getAccountNumber(), account);
+			}
+		}
+
+		List<PostingResult> results = new ArrayList<>(postings.size());
+		Map<Long, Account> debited = new LinkedHashMap<>();
+		Map<Long, Account> changed = new LinkedHashMap<>();
+		Map<Long, CustomerSummary.Contribution> before = new HashMap<>();
+
+		for (Posting posting : postings) {
+			if (posting.accountNumber == null) {
+				results.add(PostingResult.rejected(posting, "Posting accountNumber is required"));
+				continue;
+			}
+			Account account = accounts.get(posting.accountNumber);
+			if (account == null) {
+				results.add(PostingResult.rejected(posting,
+						"Account with " + posting.accountNumber + " does not exist."));
+				continue;
+			}
+			if (posting.amount == null) {
+				results.add(PostingResult.rejected(posting, "Posting amount is required"));
+				continue;
+			}
+
+			// The same rule as transact, so a batch posting is refused exactly when posting it alone would be
+			if (!account.acceptsPostings()) {
+				results.add(PostingResult.rejected(posting, "Account is overdrawn, no further withdrawals permitted"));
+				continue;
+			}
+
+			Money amount;
+			try {
+				amount = Money.of(posting.amount);
+			} catch (InvalidAmountException e) {
+				results.add(PostingResult.rejected(posting, e.getMessage()));
+				continue;
+			}
+
+			before.putIfAbsent(account.getAccountNumber(), CustomerSummary.Contribution.of(account));
+			if (amount.signum() >= 0) {
+				ledger.post(account, amount);
+			} else {
+				// Once per account: the swept slots stay locked, so no deposits reach them until commit
+				if (!debited.containsKey(account.getAccountNumber()) && hotAccounts.sweep(account).signum() != 0) {
+					changed.put(account.getAccountNumber(), account);
+				}
+
+				ledger.post(account, amount);
+				if (account.balance().isNegative()) {
+					account.markOverdrawn();
+				}
+				debited.put(account.getAccountNumber(), account);
+			}
+
+			changed.put(account.getAccountNumber(), account);
+			results.add(PostingResult.applied(posting, account));
+		}
+
+		for (Account account : debited.values()) {
+			if (account.balance().isNegative()) {
+				outbox.enqueue(new Overdrawn(account.getAccountNumber(), account.getCustomerNumber(),
+						account.balance(), account.overdraftLimit()));
+			}
+		}
+		for (Account account : changed.values()) {
+			customerSummaryRepository.update(account, before.get(account.getAccountNumber()));
+			accountChanged.fire(new AccountChanged(account));
+		}
+
+		return results;
+	}
+}
@@ -0,0 +1,8 @@
+package org.acme.accounts;
+
+// Fired with the changed entity, so observers can take its committed state without reloading it
+public record AccountChanged(Account account) {
+	public Long accountNumber() {
+		return account.getAccountNumber();
+	}
+}
@@ -0,0 +1,61 @@
+package org.acme.accounts;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Command-line import: started with {@code -Daccount.import.file=<path>}, the service imports the
+ * file on startup and exits, with status 1 if any row was rejected. Files ending in
+ * {@code .ndjson} or {@code .jsonl} are read as NDJSON, anything else as CSV.
+ */
+@ApplicationScoped
+public class AccountImportCommand {
+
+	private static final Logger LOGGER = Logger.getLogger(AccountImportCommand.class);
+
+	@ConfigProperty(name = "account.import.file")
+	Optional<Path> file;
+
+	@Inject
+	AccountImporter accountImporter;
+
+	void onStart(@Observes StartupEvent event) {
+		if (file.isEmpty()) {
+			return;
+		}
+
+		Path path = file.get();
+		String name = path.getFileName().toString();
+		AccountImporter.Format format = name.endsWith(".ndjson") || name.endsWith(".jsonl")
+				? AccountImporter.Format.NDJSON
+				: AccountImporter.Format.CSV;
+
+		ImportReport report;
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			report = accountImporter.importAccounts(format, reader);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		for (ImportReport.Reject reject : report.getRejects()) {
+			LOGGER.warnf("%s:%d rejected: %s", name, reject.line(), reject.reason());
+		}
+		LOGGER.infof("%s: %d imported, %d rejected, %d rows/s", name, report.getImported(), report.getRejected(),
+				report.getRowsPerSecond());
+		Quarkus.asyncExit(report.getRejected() == 0 ? 0 : 1);
+	}
+}
@@ -0,0 +1,179 @@
+package org.acme.accounts;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * Streams the raw fields of an import file one row at a time, so memory use does not depend on
+ * the size of the file. Fields are left as text and validated by {@link AccountImporter}.
+ */
+abstract class AccountImportRows {
+	static final String[] COLUMNS = { "accountNumber", "customerNumber", "customerName", "balance", "overdraftLimit" };
+	static final int ACCOUNT_NUMBER = 0;
+	static final int CUSTOMER_NUMBER = 1;
+	static final int CUSTOMER_NAME = 2;
+	static final int BALANCE = 3;
+	static final int OVERDRAFT_LIMIT = 4;
+
+	protected final BufferedReader reader;
+	protected final String[] fields = new String[COLUMNS.length];
+	protected long line;
+
+	AccountImportRows(Reader reader) {
+		this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 1 << 16);
+	}
+
+	static AccountImportRows of(AccountImporter.Format format, Reader reader) throws IOException {
+		return format == AccountImporter.Format.CSV ? new Csv(reader) : new Ndjson(reader);
+	}
+
+	/**
+	 * Advances to the next non-blank row. Returns false at the end of the input and throws
+	 * {@link IllegalArgumentException} when the current row cannot be split into fields.
+	 */
+	boolean next() throws IOException {
+		String text;
+		do {
+			text = reader.readLine();
+			if (text == null) {
+				return false;
+			}
+			line++;
+		} while (text.isBlank());
+
+		Arrays.fill(fields, null);
+		parse(text);
+		return true;
+	}
+
+	String field(int column) {
+		return fields[column];
+	}
+
+	long line() {
+		return line;
+	}
+
+	protected abstract void parse(String text);
+
+	// RFC 4180 CSV with a header row naming the columns; quoted fields may not span lines
+	static class Csv extends AccountImportRows {
+		private final int[] columnOf;
+
+		Csv(Reader reader) throws IOException {
+			super(reader);
+			String header = this.reader.readLine();
+			line++;
+			if (header == null) {
+				throw new IllegalArgumentException("CSV import has no header row");
+			}
+
+			String[] names = split(header.strip(), COLUMNS.length);
+			columnOf = new int[names.length];
+			for (int i = 0; i < names.length; i++) {
+				columnOf[i] = Arrays.asList(COLUMNS).indexOf(names[i].strip());
+			}
+			for (int column = 0; column < OVERDRAFT_LIMIT; column++) {
+				if (indexOf(columnOf, column) < 0) {
+					throw new IllegalArgumentException("CSV header is missing column " + COLUMNS[column]);
+				}
+			}
+		}
+
+		@Override
+		protected void parse(String text) {
+			String[] values = split(text, columnOf.length);
+			if (values.length != columnOf.length) {
+				throw new IllegalArgumentException("Expected " + columnOf.length + " fields but found " + values.length);
+			}
+			for (int i = 0; i < values.length; i++) {
+				if (columnOf[i] >= 0) {
+					fields[columnOf[i]] = values[i].isEmpty() ? null : values[i];
+				}
+			}
+		}
+
+		private static String[] split(String text, int expected) {
+			String[] values = new String[Math.max(expected, 1)];
+			int count = 0;
+			StringBuilder value = new StringBuilder();
+			boolean quoted = false;
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (quoted) {
+					if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+						value.append('"');
+						i++;
+					} else if (c == '"') {
+						quoted = false;
+					} else {
+						value.append(c);
+					}
+				} else if (c == '"') {
+					quoted = true;
+				} else if (c == ',') {
+					values = append(values, count++, value.toString());
+					value.setLength(0);
+				} else {
+					value.append(c);
+				}
+			}
+			if (quoted) {
+				throw new IllegalArgumentException("Unterminated quoted field");
+			}
+			values = append(values, count++, value.toString());
+			return count == values.length ? values : Arrays.copyOf(values, count);
+		}
+
+		private static String[] append(String[] values, int index, String value) {
+			if (index == values.length) {
+				values = Arrays.copyOf(values, values.length * 2);
+			}
+			values[index] = value;
+			return values;
+		}
+
+		private static int indexOf(int[] columns, int column) {
+			for (int i = 0; i < columns.length; i++) {
+				if (columns[i] == column) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	// One JSON object per line, using the same property names as the CSV header
+	static class Ndjson extends AccountImportRows {
+		Ndjson(Reader reader) {
+			super(reader);
+		}
+
+		@Override
+		protected void parse(String text) {
+			JsonObject object;
+			try (var json = Json.createReader(new StringReader(text))) {
+				object = json.readObject();
+			} catch (JsonException | IllegalStateException e) {
+				throw new IllegalArgumentException("Not a JSON object");
+			}
+
+			for (int column = 0; column < COLUMNS.length; column++) {
+				JsonValue value = object.get(COLUMNS[column]);
+				if (value == null || value.getValueType() == JsonValue.ValueType.NULL) {
+					continue;
+				}
+				fields[column] = value instanceof JsonString string ? string.getString() : value.toString();
+			}
+		}
+	}
+}
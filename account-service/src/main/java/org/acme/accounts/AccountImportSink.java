@@ -0,0 +1,27 @@
+package org.acme.accounts;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.BitSet;
+
+/**
+ * Where {@link AccountImporter} writes a chunk of validated rows. Rows arrive one at a time through
+ * {@link #account}; {@link #endAccounts} is called once per chunk before the opening balance
+ * snapshots for the inserted rows are written, and the caller commits or rolls back afterwards.
+ */
+interface AccountImportSink extends AutoCloseable {
+
+	void account(AccountImporter.Row row) throws SQLException;
+
+	// Which of the chunk's rows, by position, were inserted; the others repeat an existing account number
+	BitSet endAccounts() throws SQLException;
+
+	void snapshots(long[] accountNumbers, long[] balances, int count, Instant takenAt) throws SQLException;
+
+	// Discards anything buffered for the current chunk after a failure
+	void abort();
+
+	@Override
+	default void close() throws SQLException {
+	}
+}
@@ -0,0 +1,351 @@
+package org.acme.accounts;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.banking.InvalidAmountException;
+import org.acme.banking.Money;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Bulk-loads accounts from CSV or NDJSON straight into the account table, bypassing the entity
+ * manager. Rows are streamed: each is validated on its own, written to the database with COPY on
+ * PostgreSQL or batched inserts elsewhere, and committed every {@code account.import.chunk-size}
+ * rows together with the opening balance snapshots and the customer summary deltas, so memory use
+ * is bounded by the chunk size rather than the file. Rows that fail validation, and rows repeating
+ * an account number that already exists or appeared earlier in the input, are reported and skipped
+ * one by one; a chunk the database refuses for any other reason is rolled back and reported as a
+ * whole.
+ */
+@ApplicationScoped
+public class AccountImporter {
+
+	public enum Format {
+		CSV,
+		NDJSON
+	}
+
+	record Row(long id, long accountNumber, long customerNumber, String customerName, long balance,
+			Long overdraftLimit) {
+		Row withId(long id) {
+			return new Row(id, accountNumber, customerNumber, customerName, balance, overdraftLimit);
+		}
+
+		AccountStatus status() {
+			return status(balance);
+		}
+
+		static AccountStatus status(long balance) {
+			return balance < 0 ? AccountStatus.OVERDRAWN : AccountStatus.OPEN;
+		}
+	}
+
+	private static final Logger LOGGER = Logger.getLogger(AccountImporter.class);
+
+	static final int MAX_CUSTOMER_NAME_LENGTH = 255;
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	@Inject
+	SessionFactory sessionFactory;
+
+	@Inject
+	CustomerSummaryRepository customerSummaryRepository;
+
+	@ConfigProperty(name = "account.import.chunk-size", defaultValue = "50000")
+	int chunkSize;
+
+	@ConfigProperty(name = "account.import.batch-size", defaultValue = "1000")
+	int batchSize;
+
+	@ConfigProperty(name = "account.import.max-rejects", defaultValue = "1000")
+	int maxRejects;
+
+	private String nextIdBlock;
+
+	@PostConstruct
+	void init() {
+		nextIdBlock = sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+				.getSequenceSupport().getSequenceNextValString(Account.ID_SEQUENCE);
+	}
+
+	/**
+	 * Imports every row of {@code input}. Throws {@link IllegalArgumentException} when the input as
+	 * a whole is unusable, such as a CSV file without the required header columns.
+	 */
+	public ImportReport importAccounts(Format format, Reader input) {
+		long started = System.nanoTime();
+		ImportReport report = new ImportReport(maxRejects);
+
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(false);
+			AccountImportRows rows = AccountImportRows.of(format, input);
+			try (AccountImportSink sink = connection.isWrapperFor(PGConnection.class)
+					? new CopyAccountSink(connection)
+					: new BatchAccountSink(connection, batchSize)) {
+				IdBlock ids = new IdBlock(connection);
+				Chunk chunk = new Chunk(chunkSize);
+
+				while (nextRow(rows, report)) {
+					Row row;
+					try {
+						row = toRow(rows);
+					} catch (IllegalArgumentException e) {
+						report.reject(rows.line(), e.getMessage());
+						continue;
+					}
+					row = row.withId(ids.next());
+
+					try {
+						sink.account(row);
+						chunk.add(rows.line(), row);
+					} catch (SQLException e) {
+						chunk.add(rows.line(), row);
+						rollback(connection, sink, chunk, report, e);
+						continue;
+					}
+					if (chunk.isFull()) {
+						commit(connection, sink, chunk, report);
+					}
+				}
+				commit(connection, sink, chunk, report);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Account import failed", e);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		report.finished(System.nanoTime() - started);
+		LOGGER.infof("Imported %d accounts, rejected %d, in %d ms", report.getImported(), report.getRejected(),
+				report.getElapsedMillis());
+		return report;
+	}
+
+	private static boolean nextRow(AccountImportRows rows, ImportReport report) throws IOException {
+		while (true) {
+			try {
+				return rows.next();
+			} catch (IllegalArgumentException e) {
+				report.reject(rows.line(), e.getMessage());
+			}
+		}
+	}
+
+	// Validates the current row; the id is assigned once the row is known to be importable
+	static Row toRow(AccountImportRows rows) {
+		String customerName = required(rows, AccountImportRows.CUSTOMER_NAME).strip();
+		if (customerName.isEmpty() || customerName.length() > MAX_CUSTOMER_NAME_LENGTH) {
+			throw new IllegalArgumentException("customerName must be 1-" + MAX_CUSTOMER_NAME_LENGTH + " characters");
+		}
+
+		Long overdraftLimit = null;
+		if (rows.field(AccountImportRows.OVERDRAFT_LIMIT) != null) {
+			overdraftLimit = amount(rows, AccountImportRows.OVERDRAFT_LIMIT);
+			if (overdraftLimit > 0) {
+				throw new IllegalArgumentException("overdraftLimit must not be positive");
+			}
+		}
+
+		return new Row(0, positive(rows, AccountImportRows.ACCOUNT_NUMBER),
+				positive(rows, AccountImportRows.CUSTOMER_NUMBER), customerName,
+				amount(rows, AccountImportRows.BALANCE), overdraftLimit);
+	}
+
+	private static String required(AccountImportRows rows, int column) {
+		String value = rows.field(column);
+		if (value == null) {
+			throw new IllegalArgumentException(AccountImportRows.COLUMNS[column] + " is required");
+		}
+		return value;
+	}
+
+	private static long positive(AccountImportRows rows, int column) {
+		try {
+			long value = Long.parseLong(required(rows, column).strip());
+			if (value > 0) {
+				return value;
+			}
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+		throw new IllegalArgumentException(AccountImportRows.COLUMNS[column] + " must be a positive whole number");
+	}
+
+	private static long amount(AccountImportRows rows, int column) {
+		try {
+			return Money.parse(required(rows, column)).minorUnits();
+		} catch (InvalidAmountException e) {
+			throw new IllegalArgumentException(AccountImportRows.COLUMNS[column] + " is not a valid amount");
+		}
+	}
+
+	private void commit(Connection connection, AccountImportSink sink, Chunk chunk, ImportReport report) {
+		if (chunk.size == 0) {
+			return;
+		}
+
+		try {
+			chunk.keep(sink.endAccounts(), report);
+			sink.snapshots(chunk.accountNumbers, chunk.balances, chunk.size, Instant.now());
+			applySummaries(connection, chunk.contributions());
+			connection.commit();
+			report.imported(chunk.size);
+			chunk.clear();
+		} catch (SQLException e) {
+			rollback(connection, sink, chunk, report, e);
+		}
+	}
+
+	private static void rollback(Connection connection, AccountImportSink sink, Chunk chunk, ImportReport report,
+			SQLException cause) {
+		sink.abort();
+		try {
+			connection.rollback();
+		} catch (SQLException e) {
+			cause.addSuppressed(e);
+			throw new IllegalStateException("Account import failed", cause);
+		}
+		LOGGER.warnf("Import rows on lines %d-%d rolled back: %s", chunk.firstLine, chunk.lastLine, cause.getMessage());
+		report.rejectChunk(chunk.firstLine, chunk.lastLine, chunk.size, cause.getMessage());
+		chunk.clear();
+	}
+
+	private void applySummaries(Connection connection, Map<Long, CustomerSummary.Contribution> contributions)
+			throws SQLException {
+		List<Long> customers = new ArrayList<>(contributions.keySet());
+		try (PreparedStatement upsert = connection.prepareStatement(customerSummaryRepository.upsertSql())) {
+			for (int from = 0; from < customers.size(); from += batchSize) {
+				int to = Math.min(from + batchSize, customers.size());
+				for (Long customer : customers.subList(from, to)) {
+					bind(upsert, customer, contributions.get(customer));
+					upsert.addBatch();
+				}
+				upsert.executeBatch();
+			}
+		}
+	}
+
+	private static void bind(PreparedStatement statement, Long customer, CustomerSummary.Contribution contribution)
+			throws SQLException {
+		statement.setLong(1, contribution.accounts());
+		statement.setLong(2, contribution.balance());
+		statement.setLong(3, contribution.overdrawn());
+		statement.setLong(4, contribution.exposure());
+		statement.setLong(5, customer);
+	}
+
+	/**
+	 * Hands out ids from blocks reserved on the account id sequence. Each call to the sequence
+	 * reserves {@link Account#ID_ALLOCATION_SIZE} ids starting at the returned value, the same
+	 * pooled-lo contract Hibernate uses for entities persisted through the API, so both can
+	 * allocate concurrently without colliding.
+	 */
+	private class IdBlock {
+		private final Connection connection;
+		private long next;
+		private long end;
+
+		IdBlock(Connection connection) {
+			this.connection = connection;
+		}
+
+		long next() throws SQLException {
+			if (next == end) {
+				try (Statement statement = connection.createStatement();
+						ResultSet result = statement.executeQuery(nextIdBlock)) {
+					result.next();
+					next = result.getLong(1);
+					end = next + Account.ID_ALLOCATION_SIZE;
+				}
+			}
+			return next++;
+		}
+	}
+
+	// The rows written since the last commit, as much of them as is needed after the account COPY ends
+	private static class Chunk {
+		final long[] lines;
+		final long[] accountNumbers;
+		final long[] customerNumbers;
+		final long[] balances;
+		int size;
+		long firstLine;
+		long lastLine;
+
+		Chunk(int capacity) {
+			lines = new long[capacity];
+			accountNumbers = new long[capacity];
+			customerNumbers = new long[capacity];
+			balances = new long[capacity];
+		}
+
+		void add(long line, Row row) {
+			if (size == 0) {
+				firstLine = line;
+			}
+			lastLine = line;
+			lines[size] = line;
+			accountNumbers[size] = row.accountNumber();
+			customerNumbers[size] = row.customerNumber();
+			balances[size] = row.balance();
+			size++;
+		}
+
+		// Drops and reports the rows the database skipped, keeping the inserted ones in order
+		void keep(BitSet inserted, ImportReport report) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (!inserted.get(i)) {
+					report.reject(lines[i], "accountNumber " + accountNumbers[i] + " already exists");
+					continue;
+				}
+				lines[kept] = lines[i];
+				accountNumbers[kept] = accountNumbers[i];
+				customerNumbers[kept] = customerNumbers[i];
+				balances[kept] = balances[i];
+				kept++;
+			}
+			size = kept;
+		}
+
+		Map<Long, CustomerSummary.Contribution> contributions() {
+			Map<Long, CustomerSummary.Contribution> contributions = new HashMap<>();
+			for (int i = 0; i < size; i++) {
+				contributions.merge(customerNumbers[i], CustomerSummary.Contribution.of(Row.status(balances[i]), balances[i]),
+						CustomerSummary.Contribution::plus);
+			}
+			return contributions;
+		}
+
+		boolean isFull() {
+			return size == accountNumbers.length;
+		}
+
+		void clear() {
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package org.acme.accounts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class AccountLocks {
+
+	@ConfigProperty(name = "account.lock.stripes", defaultValue = "1024")
+	int stripeCount;
+
+	private Semaphore[] stripes;
+
+	@PostConstruct
+	void init() {
+		// Round up to a power of two so the stripe can be picked with a mask
+		int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+		stripes = new Semaphore[size];
+		for (int i = 0; i < size; i++) {
+			// Fair, so operations on one account are applied in arrival order
+			stripes[i] = new Semaphore(1, true);
+		}
+	}
+
+	// Semaphores rather than ReentrantLocks, as async handlers release the stripe from the completing thread
+	public Semaphore acquire(Long accountNumber) throws InterruptedException {
+		Semaphore stripe = stripeFor(accountNumber);
+		stripe.acquire();
+		return stripe;
+	}
+
+	// Stripes are taken in ascending order so concurrent batches cannot deadlock on each other
+	public List<Semaphore> acquireAll(Collection<Long> accountNumbers) throws InterruptedException {
+		int[] indexes = accountNumbers.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+		List<Semaphore> acquired = new ArrayList<>(indexes.length);
+		try {
+			for (int index : indexes) {
+				stripes[index].acquire();
+				acquired.add(stripes[index]);
+			}
+		} catch (InterruptedException e) {
+			releaseAll(acquired);
+			throw e;
+		}
+		return acquired;
+	}
+
+	public void releaseAll(List<Semaphore> acquired) {
+		for (Semaphore stripe : acquired) {
+			stripe.release();
+		}
+	}
+
+	int stripeIndex(Long accountNumber) {
+		int h = Long.hashCode(accountNumber);
+		h ^= (h >>> 16);
+		return h & (stripes.length - 1);
+	}
+
+	private Semaphore stripeFor(Long accountNumber) {
+		return stripes[stripeIndex(accountNumber)];
+	}
+}
@@ -0,0 +1,16 @@
+package org.acme.accounts;
+
+import java.util.List;
+
+public class AccountPage {
+	public List<Account> accounts;
+	public Long nextCursor;
+
+	public AccountPage() {
+	}
+
+	public AccountPage(List<Account> accounts, Long nextCursor) {
+		this.accounts = accounts;
+		this.nextCursor = nextCursor;
+	}
+}
@@ -0,0 +1,156 @@
+package org.acme.accounts;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.jboss.logging.Logger;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * In-memory read side for balance and status reads. The table is filled at startup by streaming
+ * the account table, updated with the committed state of every {@link AccountChanged} entity, and
+ * for accounts it does not know, such as rows written by the bulk importer, loaded from the
+ * primary on first read.
+ */
+@ApplicationScoped
+public class AccountReadModel {
+
+	private static final Logger LOGGER = Logger.getLogger(AccountReadModel.class);
+
+	// Revision as in Account.revision(), so rows and changed entities order the same way
+	static final String SELECT_ACCOUNTS = "select a.accountNumber, a.customerNumber, " + Ledger.CURRENT_BALANCE
+			+ " balance, a.overdraftLimit, a.accountStatus, a.version + " + Ledger.LAST_SEQUENCE
+			+ " revision from account a";
+
+	private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+	@ConfigProperty(name = "read-model.enabled", defaultValue = "true")
+	boolean enabled;
+
+	@ConfigProperty(name = "read-model.initial-capacity", defaultValue = "100000")
+	int initialCapacity;
+
+	@ConfigProperty(name = "read-model.fetch-size", defaultValue = "10000")
+	int fetchSize;
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	private volatile AccountTable table;
+
+	void onStart(@Observes StartupEvent event) {
+		if (!enabled) {
+			return;
+		}
+
+		long started = System.nanoTime();
+		AccountTable rebuilt = new AccountTable(initialCapacity);
+		// Published before it is filled: reads of accounts not streamed in yet load them on demand, and changes
+		// committed meanwhile are applied too, with versions deciding which state is newest
+		table = rebuilt;
+		try (Connection connection = dataSource.getConnection()) {
+			// PostgreSQL only streams with a cursor inside a transaction
+			connection.setAutoCommit(false);
+			try (Statement query = connection.createStatement()) {
+				query.setFetchSize(fetchSize);
+				try (ResultSet rows = query.executeQuery(SELECT_ACCOUNTS)) {
+					while (rows.next()) {
+						put(rebuilt, rows);
+					}
+				}
+			} finally {
+				connection.rollback();
+			}
+		} catch (SQLException e) {
+			// Every read goes to the database instead
+			table = null;
+			LOGGER.error("Account read model could not be built, reads use the database", e);
+			return;
+		}
+		LOGGER.infof("Account read model loaded %d accounts in %d ms", rebuilt.size(),
+				(System.nanoTime() - started) / 1_000_000);
+	}
+
+	public boolean isReady() {
+		return table != null;
+	}
+
+	/**
+	 * The account's current state, or null if it does not exist. Callers check {@link #isReady()}
+	 * first; a disabled or failed read model has no state to offer.
+	 */
+	public AccountView find(long accountNumber) {
+		AccountTable current = table;
+		AccountView view = current.get(accountNumber);
+		return view != null ? view : load(current, accountNumber);
+	}
+
+	void onAccountChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) AccountChanged event) {
+		AccountTable current = table;
+		if (current == null) {
+			return;
+		}
+
+		Account account = event.account();
+		current.put(account.getAccountNumber(), orZero(account.getCustomerNumber()),
+				account.balance() == null ? 0 : account.balance().minorUnits(),
+				account.overdraftLimit() == null ? AccountTable.NO_LIMIT : account.overdraftLimit().minorUnits(),
+				account.getAccountStatus(), account.revision());
+	}
+
+	@Gauge(name = "readModelAccounts", unit = MetricUnits.NONE, absolute = true, description = "Accounts held by the in-memory read model")
+	public long getSize() {
+		AccountTable current = table;
+		return current == null ? 0 : current.size();
+	}
+
+	@Gauge(name = "readModelSize", unit = MetricUnits.BYTES, absolute = true, description = "Memory held by the in-memory read model's arrays")
+	public long getBytes() {
+		AccountTable current = table;
+		return current == null ? 0 : current.bytes();
+	}
+
+	private AccountView load(AccountTable current, long accountNumber) {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement query = connection.prepareStatement(SELECT_ACCOUNTS + " where a.accountNumber = ?")) {
+			query.setLong(1, accountNumber);
+			try (ResultSet rows = query.executeQuery()) {
+				if (!rows.next()) {
+					return null;
+				}
+				put(current, rows);
+				long overdraftLimit = rows.getLong("overdraftLimit");
+				Long limit = rows.wasNull() ? null : overdraftLimit;
+				return new AccountView(accountNumber, rows.getLong("customerNumber"), rows.getLong("balance"), limit,
+						STATUSES[rows.getInt("accountStatus")]);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not load account " + accountNumber, e);
+		}
+	}
+
+	private static void put(AccountTable table, ResultSet row) throws SQLException {
+		long overdraftLimit = row.getLong("overdraftLimit");
+		if (row.wasNull()) {
+			overdraftLimit = AccountTable.NO_LIMIT;
+		}
+		table.put(row.getLong("accountNumber"), row.getLong("customerNumber"), row.getLong("balance"), overdraftLimit,
+				STATUSES[row.getInt("accountStatus")], row.getLong("revision"));
+	}
+
+	private static long orZero(Long value) {
+		return value == null ? 0 : value;
+	}
+}
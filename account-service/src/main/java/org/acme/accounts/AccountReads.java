@@ -0,0 +1,160 @@
+package org.acme.accounts;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.acme.banking.Money;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.jboss.logging.Logger;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Routes account reads between the primary and the read replica. A read goes to the replica only
+ * when it runs outside a transaction, replica routing is enabled, and the replica's last measured
+ * lag is within {@code replica.max-staleness}; otherwise, or if the replica read fails, it is
+ * served by the primary through {@link AccountRepository}. Read latency is timed per datasource,
+ * and every read kept on the primary is counted by the reason it was not routed.
+ */
+@ApplicationScoped
+public class AccountReads {
+
+	enum Route {
+		PRIMARY,
+		REPLICA
+	}
+
+	@FunctionalInterface
+	interface ReplicaRead<T> {
+		T read() throws SQLException;
+	}
+
+	private static final Logger LOGGER = Logger.getLogger(AccountReads.class);
+
+	@ConfigProperty(name = "replica.enabled", defaultValue = "true")
+	boolean enabled;
+
+	@ConfigProperty(name = "replica.max-staleness", defaultValue = "2s")
+	Duration maxStaleness;
+
+	@Inject
+	AccountRepository accountRepository;
+
+	@Inject
+	ReplicaAccountRepository replicaAccountRepository;
+
+	@Inject
+	@RegistryType(type = MetricRegistry.Type.APPLICATION)
+	MetricRegistry metricRegistry;
+
+	// Null until the first successful lag check, and again whenever the replica cannot be reached
+	private volatile Duration lag;
+
+	private Timer primaryReads;
+	private Timer replicaReads;
+
+	@PostConstruct
+	void init() {
+		primaryReads = metricRegistry.timer("accountReads", new Tag("datasource", "primary"));
+		replicaReads = metricRegistry.timer("accountReads", new Tag("datasource", "replica"));
+	}
+
+	void onStart(@Observes StartupEvent event) {
+		checkLag();
+	}
+
+	@Scheduled(every = "${replica.lag.check-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+	void checkLag() {
+		if (!enabled) {
+			return;
+		}
+		try {
+			lag = replicaAccountRepository.lag();
+		} catch (SQLException e) {
+			LOGGER.warnf("Replica lag check failed, reading from the primary: %s", e.getMessage());
+			lag = null;
+		}
+	}
+
+	public Account findByAccountNumber(Long accountNumber) {
+		return read(() -> accountRepository.findByAccountNumber(accountNumber),
+				() -> replicaAccountRepository.findByAccountNumber(accountNumber));
+	}
+
+	public Money findBalance(Long accountNumber) {
+		return read(() -> accountRepository.findBalance(accountNumber),
+				() -> replicaAccountRepository.findBalance(accountNumber));
+	}
+
+	public List<Account> listAll() {
+		return read(accountRepository::listAll, replicaAccountRepository::listAll);
+	}
+
+	Route route() {
+		return fallbackReason() == null ? Route.REPLICA : Route.PRIMARY;
+	}
+
+	@Gauge(name = "replicaLag", unit = MetricUnits.MILLISECONDS, absolute = true, description = "Last measured replication lag of the read replica, or -1 if unknown")
+	public long getLagMillis() {
+		Duration current = lag;
+		return current == null ? -1 : current.toMillis();
+	}
+
+	private <T> T read(Supplier<T> primary, ReplicaRead<T> replica) {
+		String reason = fallbackReason();
+		if (reason == null) {
+			Timer.Context timing = replicaReads.time();
+			try {
+				return replica.read();
+			} catch (SQLException e) {
+				LOGGER.warnf("Replica read failed, reading from the primary: %s", e.getMessage());
+				lag = null;
+				reason = "error";
+			} finally {
+				timing.stop();
+			}
+		}
+
+		fallbacks(reason).inc();
+		Timer.Context timing = primaryReads.time();
+		try {
+			return primary.get();
+		} finally {
+			timing.stop();
+		}
+	}
+
+	private String fallbackReason() {
+		if (!enabled) {
+			return "disabled";
+		}
+		if (QuarkusTransaction.isActive()) {
+			return "transaction";
+		}
+		Duration current = lag;
+		if (current == null) {
+			return "unavailable";
+		}
+		return current.compareTo(maxStaleness) > 0 ? "lag" : null;
+	}
+
+	private Counter fallbacks(String reason) {
+		return metricRegistry.counter("accountReadsOnPrimary", new Tag("reason", reason));
+	}
+}
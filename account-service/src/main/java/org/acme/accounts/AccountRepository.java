@@ -1,17 +1,178 @@
 package org.acme.accounts;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.acme.banking.Money;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 
 @ApplicationScoped
 public class AccountRepository implements PanacheRepository<Account> {
+	private static final int UPDATE_CHUNK = 500;
+
+	private static final String TAILS = "select e.accountNumber, sum(e.amount), max(e.sequence) from LedgerEntry e"
+			+ " join account a on a.accountNumber = e.accountNumber"
+			+ " where e.accountNumber in (?1) and e.sequence > a.postingSequence group by e.accountNumber";
+
+	@Inject
+	SessionFactory sessionFactory;
+
 	public Account findByAccountNumber(Long accountNumber) {
-		return find("accountNumber = ?1", accountNumber).firstResult();
+		// Resolved through the natural-id cache, then the entity cache, before hitting the unique index
+		Account account = getEntityManager().unwrap(Session.class).bySimpleNaturalId(Account.class)
+				.load(accountNumber);
+		if (account != null && !account.projected()) {
+			Object[] tail = (Object[]) getEntityManager().createNativeQuery(Ledger.TAIL)
+					.setParameter(1, accountNumber)
+					.setParameter(2, account.getPostingSequence())
+					.getSingleResult();
+			account.project(Money.ofMinor(((Number) tail[0]).longValue()),
+					tail[1] == null ? account.getPostingSequence() : ((Number) tail[1]).longValue());
+		}
+		return account;
 	}
 
+	// In no particular order: Hibernate cannot return multiple natural-id loads in request order
+	public List<Account> findByAccountNumbers(List<Long> accountNumbers) {
+		List<Account> accounts = getEntityManager().unwrap(Session.class).byMultipleNaturalId(Account.class)
+				.enableOrderedReturn(false).multiLoad(accountNumbers);
+		project(getEntityManager().unwrap(Session.class), accounts);
+		return accounts;
+	}
+
+	public Money findBalance(Long accountNumber) {
+		return ((List<?>) getEntityManager()
+				.createNativeQuery("select " + Ledger.CURRENT_BALANCE + " from account a where a.accountNumber = ?1")
+				.setParameter(1, accountNumber).getResultList()).stream().findFirst()
+				.map(balance -> Money.ofMinor(((Number) balance).longValue())).orElse(null);
+	}
+
+	@Override
+	public List<Account> listAll() {
+		List<Account> accounts = PanacheRepository.super.listAll();
+		project(getEntityManager().unwrap(Session.class), accounts);
+		return accounts;
+	}
 
 	public long totalAccountsForCustomer(Long customerNumber) {
-		return find("customerNumber = ?1", customerNumber).count();
+		// Maintained incrementally with every account change, so this is a primary key lookup
+		CustomerSummary summary = getEntityManager().find(CustomerSummary.class, customerNumber);
+		return summary == null ? 0 : summary.getAccountCount();
+	}
+
+	// Locks and updates the accounts as entities, chunk by chunk, so their second-level cache entries are
+	// replaced one by one; an HQL bulk update would evict the whole Account region instead
+	public List<Account> updateOverdraftLimits(Map<Long, Money> overdraftLimits) {
+		List<Long> accountNumbers = new ArrayList<>(overdraftLimits.keySet());
+		List<Account> updated = new ArrayList<>(accountNumbers.size());
+		for (int from = 0; from < accountNumbers.size(); from += UPDATE_CHUNK) {
+			List<Long> chunk = accountNumbers.subList(from, Math.min(from + UPDATE_CHUNK, accountNumbers.size()));
+			List<Account> accounts = find("accountNumber in ?1", Sort.by("accountNumber"), chunk)
+					.withLock(LockModeType.PESSIMISTIC_WRITE).list();
+			for (Account account : accounts) {
+				account.changeOverdraftLimit(overdraftLimits.get(account.getAccountNumber()));
+				updated.add(account);
+			}
+			project(getEntityManager().unwrap(Session.class), accounts);
+		}
+		return updated;
+	}
+
+	// Keyset pagination: seeks past the last accountNumber seen instead of using an offset
+	public List<Account> findPage(Long afterAccountNumber, int limit, Long customerNumber, AccountStatus status) {
+		Parameters parameters = Parameters.with("after",
+				afterAccountNumber == null ? Long.MIN_VALUE : afterAccountNumber);
+		String query = "accountNumber > :after" + filters(customerNumber, status, parameters);
+		List<Account> accounts = find(query, Sort.by("accountNumber"), parameters).page(0, limit).list();
+		project(getEntityManager().unwrap(Session.class), accounts);
+		return accounts;
+	}
+
+	/**
+	 * Streams over a server-side cursor through a stateless session, so no entity stays in memory
+	 * after it is consumed. Accounts are projected and handed on a fetch at a time.
+	 */
+	// Hands the accounts to the consumer one fetched chunk at a time
+	public void scroll(Long customerNumber, AccountStatus status, int fetchSize, Consumer<List<Account>> consumer) {
+		Parameters parameters = new Parameters();
+		String query = "from Account where 1 = 1" + filters(customerNumber, status, parameters)
+				+ " order by accountNumber";
+
+		QuarkusTransaction.requiringNew().run(() -> {
+			try (StatelessSession session = sessionFactory.openStatelessSession()) {
+				SelectionQuery<Account> selection = session.createSelectionQuery(query, Account.class)
+						.setFetchSize(fetchSize);
+				parameters.map().forEach(selection::setParameter);
+
+				List<Account> fetched = new ArrayList<>(fetchSize);
+				try (ScrollableResults<Account> results = selection.scroll(ScrollMode.FORWARD_ONLY)) {
+					while (results.next()) {
+						Account account = results.get();
+						// Stateless loads skip the entity callbacks
+						account.loaded();
+						fetched.add(account);
+						if (fetched.size() == fetchSize) {
+							project(session, fetched);
+							consumer.accept(fetched);
+							fetched.clear();
+						}
+					}
+				}
+				project(session, fetched);
+				consumer.accept(fetched);
+			}
+		});
+	}
+
+	// One grouped ledger query for the accounts not projected yet; the rest have no entries past their row
+	private static void project(SharedSessionContract session, List<Account> accounts) {
+		Map<Long, Account> unprojected = new HashMap<>();
+		for (Account account : accounts) {
+			if (account != null && !account.projected()) {
+				account.project(Money.ZERO, account.getPostingSequence());
+				unprojected.put(account.getAccountNumber(), account);
+			}
+		}
+		List<Long> accountNumbers = new ArrayList<>(unprojected.keySet());
+		for (int from = 0; from < accountNumbers.size(); from += UPDATE_CHUNK) {
+			List<Object[]> tails = session.createNativeQuery(TAILS, Object[].class)
+					.setParameter(1, accountNumbers.subList(from, Math.min(from + UPDATE_CHUNK, accountNumbers.size())))
+					.getResultList();
+			for (Object[] tail : tails) {
+				unprojected.get(((Number) tail[0]).longValue()).project(Money.ofMinor(((Number) tail[1]).longValue()),
+						((Number) tail[2]).longValue());
+			}
+		}
+	}
+
+	private String filters(Long customerNumber, AccountStatus status, Parameters parameters) {
+		StringBuilder filters = new StringBuilder();
+		if (customerNumber != null) {
+			filters.append(" and customerNumber = :customerNumber");
+			parameters.and("customerNumber", customerNumber);
+		}
+		if (status != null) {
+			filters.append(" and accountStatus = :status");
+			parameters.and("status", status);
+		}
+		return filters.toString();
 	}
 
 }
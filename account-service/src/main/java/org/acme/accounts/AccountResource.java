@@ -1,45 +1,64 @@
 package org.acme.accounts;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-
-import org.acme.accounts.events.OverdraftLimitUpdate;
-import org.acme.accounts.events.Overdrawn;
-import org.apache.kafka.common.header.internals.RecordHeaders;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import org.acme.banking.InvalidAmountException;
+import org.acme.banking.Money;
+import org.acme.banking.events.OverdraftLimitUpdate;
+import org.acme.banking.events.Overdrawn;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.metrics.Counter;
 import org.eclipse.microprofile.metrics.annotation.Metric;
 import org.eclipse.microprofile.opentracing.Traced;
-import org.eclipse.microprofile.reactive.messaging.Channel;
-import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
-import org.eclipse.microprofile.reactive.messaging.Message;
+import org.hibernate.exception.ConstraintViolationException;
+import org.jboss.logging.Logger;
 
 import io.opentracing.Tracer;
-import io.opentracing.contrib.kafka.TracingKafkaUtils;
-import io.smallrye.reactive.messaging.annotations.Blocking;
-import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.json.Json;
 import jakarta.json.JsonObjectBuilder;
+import jakarta.json.bind.Jsonb;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
 
@@ -48,6 +67,8 @@ import jakarta.ws.rs.ext.Provider;
 @Consumes(MediaType.APPLICATION_JSON)
 public class AccountResource {
 
+	private static final Logger LOGGER = Logger.getLogger(AccountResource.class);
+
 	@RolesAllowed("customer")
 	@GET
 	@Path("/jwt-secure/{acctNumber}/balance")
@@ -58,38 +79,170 @@ public class AccountResource {
 	@Inject
 	AccountRepository accountRepository;
 
+	@Inject
+	AccountReads accountReads;
+
 	@GET
 	public List<Account> allAccounts() {
-		return accountRepository.listAll();
+		return hotAccounts.withUnswept(accountReads.listAll());
+	}
+
+	@Inject
+	Jsonb jsonb;
+
+	@GET
+	@Path("/page")
+	public AccountPage accountPage(@QueryParam("after") Long after,
+			@QueryParam("limit") @DefaultValue("100") int limit, @QueryParam("customerNumber") Long customerNumber,
+			@QueryParam("status") AccountStatus status) {
+		if (limit < 1 || limit > 1000) {
+			throw new WebApplicationException("Page limit must be between 1 and 1000", 400);
+		}
+
+		List<Account> accounts = hotAccounts
+				.withUnswept(accountRepository.findPage(after, limit, customerNumber, status));
+		Long nextCursor = accounts.size() < limit ? null : accounts.get(accounts.size() - 1).getAccountNumber();
+		return new AccountPage(accounts, nextCursor);
+	}
+
+	@GET
+	@Path("/stream")
+	@Produces("application/x-ndjson")
+	public Response streamAccounts(@QueryParam("customerNumber") Long customerNumber,
+			@QueryParam("status") AccountStatus status) {
+		StreamingOutput output = out -> {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			accountRepository.scroll(customerNumber, status, 500, accounts -> {
+				try {
+					for (Account account : hotAccounts.withUnswept(accounts)) {
+						// Not toJson(account, writer): JSON-B closes the writer it is given once the object is written
+						writer.write(jsonb.toJson(account));
+						writer.write('\n');
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.flush();
+		};
+		return Response.ok(output).build();
 	}
 
 	@GET
 	@Path("/{accountNumber}")
 	public Account getAccount(@PathParam("accountNumber") Long accountNumber) {
-		Account account = accountRepository.findByAccountNumber(accountNumber);
+		Account account = accountReads.findByAccountNumber(accountNumber);
 
-		if (accountNumber == null) {
-			throw new WebApplicationException("Account with" + accountNumber + "does not exist", 404);
+		if (account == null) {
+			throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
 		}
 
-		return account;
+		return hotAccounts.withUnswept(account);
 	}
 
+	@Inject
+	BalanceCache balanceCache;
+
+	@Inject
+	Event<AccountChanged> accountChanged;
+
+	@Inject
+	HotAccounts hotAccounts;
+
+	@Inject
+	AccountReadModel accountReadModel;
+
 	@GET
 	@Path("/{accountNumber}/balance")
 	public BigDecimal getBalance(@PathParam("accountNumber") Long accountNumber) {
-		Account account = accountRepository.findByAccountNumber(accountNumber);
+		if (hotAccounts.isHot(accountNumber)) {
+			// Deposits to slots change no account row, so neither the read model nor the cache sees them
+			Money balance = hotAccounts.balance(accountNumber);
+			if (balance == null) {
+				throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
+			}
+			return balance.toBigDecimal();
+		}
+		if (!accountReadModel.isReady()) {
+			return balanceCache.getBalance(accountNumber).toBigDecimal();
+		}
+		return view(accountNumber).balanceAmount();
+	}
 
-		if (account == null) {
+	@GET
+	@Path("/{accountNumber}/status")
+	public AccountStatus getStatus(@PathParam("accountNumber") Long accountNumber) {
+		if (!accountReadModel.isReady()) {
+			return getAccount(accountNumber).getAccountStatus();
+		}
+		return view(accountNumber).status();
+	}
+
+	private AccountView view(Long accountNumber) {
+		AccountView view = accountReadModel.find(accountNumber);
+		if (view == null) {
 			throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
 		}
+		return view;
+	}
 
-		return account.getBalance();
+	@Inject
+	CustomerSummaryRepository customerSummaryRepository;
 
+	@GET
+	@Path("/customers/{customerNumber}/summary")
+	public CustomerSummary customerSummary(@PathParam("customerNumber") Long customerNumber) {
+		CustomerSummary summary = customerSummaryRepository.findById(customerNumber);
+		if (summary == null) {
+			throw new WebApplicationException("Customer with " + customerNumber + " has no accounts.", 404);
+		}
+		return summary;
+	}
+
+	@Inject
+	Ledger ledger;
+
+	@Inject
+	LedgerRepository ledgerRepository;
+
+	@GET
+	@Path("/{accountNumber}/ledger")
+	public List<LedgerEntry> ledgerEntries(@PathParam("accountNumber") Long accountNumber,
+			@QueryParam("after") @DefaultValue("0") long after, @QueryParam("limit") @DefaultValue("100") int limit) {
+		if (limit < 1 || limit > 1000) {
+			throw new WebApplicationException("Page limit must be between 1 and 1000", 400);
+		}
+
+		return ledgerRepository.findEntries(accountNumber, after, limit);
+	}
+
+	@GET
+	@Path("/{accountNumber}/ledger/balance")
+	public BigDecimal historicalBalance(@PathParam("accountNumber") Long accountNumber,
+			@QueryParam("sequence") Long sequence, @QueryParam("at") String at) {
+		Money balance;
+		if (sequence != null) {
+			balance = ledger.balanceAt(accountNumber, sequence);
+		} else if (at != null) {
+			try {
+				balance = ledger.balanceAt(accountNumber, Instant.parse(at));
+			} catch (DateTimeParseException e) {
+				throw new WebApplicationException("Invalid instant: " + at, 400);
+			}
+		} else {
+			throw new WebApplicationException("Either sequence or at is required", 400);
+		}
+
+		if (balance == null) {
+			throw new WebApplicationException("Account with " + accountNumber + " has no balance at that point.", 404);
+		}
+		return balance.toBigDecimal();
 	}
 
 	@POST
 	@Path("{accountNumber}/transaction")
+	@SerializedPerAccount(exceptHot = true)
+	@Idempotent
 	@Transactional
 	public Map<String, List<String>> transact(@Context HttpHeaders headers,
 			@PathParam("accountNumber") Long accountNumber, BigDecimal amount) {
@@ -99,14 +252,66 @@ public class AccountResource {
 			throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
 		}
 
-		if (entity.getAccountStatus().equals(AccountStatus.OVERDRAWN)) {
+		if (!entity.acceptsPostings()) {
 			throw new WebApplicationException("Account is overdrawn, no further withdrawals permitted", 409);
 		}
 
-		entity.setBalance(entity.addFunds(amount));
+		Money posting = Money.of(amount);
+		if (entity.getHotSlots() != null && posting.signum() > 0) {
+			hotAccounts.deposit(entity, posting);
+			return headers.getRequestHeaders();
+		}
+
+		CustomerSummary.Contribution before = CustomerSummary.Contribution.of(entity);
+		hotAccounts.sweep(entity);
+		ledger.post(entity, posting);
+		customerSummaryRepository.update(entity, before);
+		accountChanged.fire(new AccountChanged(entity));
 		return headers.getRequestHeaders();
 	}
 
+	@Inject
+	AccountLocks accountLocks;
+
+	@Inject
+	AccountBatchService accountBatchService;
+
+	// Every account in a slice stays locked until the slice commits, so larger slices would stall unrelated postings
+	@ConfigProperty(name = "account.batch.slice-size", defaultValue = "100")
+	int batchSliceSize;
+
+	/**
+	 * Applies the postings in slices of {@code account.batch.slice-size}, each in its own transaction
+	 * under the locks of the accounts it posts to, so a batch of any size only ever holds one slice's
+	 * locks. A slice commits or rolls back as a whole; the postings of one that fails are reported as
+	 * rejected and the batch goes on with the next.
+	 */
+	@POST
+	@Path("transactions/batch")
+	public List<PostingResult> batchTransactions(List<Posting> postings) throws InterruptedException {
+		if (postings == null || postings.isEmpty()) {
+			throw new WebApplicationException("At least one posting is required", 400);
+		}
+
+		List<PostingResult> results = new ArrayList<>(postings.size());
+		for (int from = 0; from < postings.size(); from += batchSliceSize) {
+			List<Posting> slice = postings.subList(from, Math.min(from + batchSliceSize, postings.size()));
+			List<Semaphore> locks = accountLocks.acquireAll(slice.stream()
+					.map(p -> p.accountNumber).filter(Objects::nonNull).collect(Collectors.toSet()));
+			try {
+				results.addAll(accountBatchService.apply(slice));
+			} catch (RuntimeException e) {
+				LOGGER.warnf(e, "Batch postings %d to %d rolled back", from, from + slice.size() - 1);
+				for (Posting posting : slice) {
+					results.add(PostingResult.rejected(posting, "Rolled back with its slice of the batch: " + e.getMessage()));
+				}
+			} finally {
+				accountLocks.releaseAll(locks);
+			}
+		}
+		return results;
+	}
+
 	@POST
 	@Transactional
 	public Response createAccount(Account account) {
@@ -115,23 +320,43 @@ public class AccountResource {
 		}
 
 		accountRepository.persist(account);
+		ledger.open(account);
+		customerSummaryRepository.update(account, CustomerSummary.Contribution.NONE);
+		accountChanged.fire(new AccountChanged(account));
 		return Response.status(201).entity(account).build();
 	}
 
+	public static final String NDJSON = "application/x-ndjson";
+
 	@Inject
-	@Channel("account-overdrawn")
-	Emitter<Overdrawn> emitter;
+	AccountImporter accountImporter;
+
+	// Streams a CSV or NDJSON file of new accounts into the database; see AccountImporter
+	@POST
+	@Path("import")
+	@Consumes({ "text/csv", NDJSON })
+	public ImportReport importAccounts(@Context HttpHeaders headers, InputStream body) {
+		AccountImporter.Format format = headers.getMediaType().isCompatible(MediaType.valueOf(NDJSON))
+				? AccountImporter.Format.NDJSON
+				: AccountImporter.Format.CSV;
+		try {
+			return accountImporter.importAccounts(format, new InputStreamReader(body, StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException e) {
+			throw new WebApplicationException(e.getMessage(), 400);
+		}
+	}
 
-	int ackedMessages = 0;
-	List<Throwable> failures = new ArrayList<>();
+	@Inject
+	Outbox outbox;
 
 	@Inject
 	Tracer tracer;
 
-	@SuppressWarnings("unchecked")
 	@PUT
 	@Path("{accountNumber}/withdrawal")
 	@Traced(operationName = "withdraw-from-account")
+	@SerializedPerAccount
+	@Idempotent
 	@Transactional
 	public CompletionStage<Account> withdrawal(@PathParam("accountNumber") Long accountNumber, String amount) {
 		Account entity = accountRepository.findByAccountNumber(accountNumber);
@@ -139,51 +364,50 @@ public class AccountResource {
 			throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
 		}
 
+		// A hot account's deposits are swept into it first, so the checks below see its whole balance
+		CustomerSummary.Contribution before = CustomerSummary.Contribution.of(entity);
+		hotAccounts.sweep(entity);
+
 		if (entity.getAccountStatus().equals(AccountStatus.OVERDRAWN)
-				&& entity.getBalance().compareTo(entity.getOverdraftLimit()) <= 0) {
+				&& entity.balance().compareTo(entity.overdraftLimit()) <= 0) {
 			throw new WebApplicationException("Account is overdrawn, no further withdrawals permitted", 409);
 		}
 
-		entity.withdrawFunds(new BigDecimal(amount));
+		ledger.post(entity, Money.parse(amount).negate());
+		accountChanged.fire(new AccountChanged(entity));
 		tracer.activeSpan().setTag("accountNumber", accountNumber);
 		tracer.activeSpan().setBaggageItem("withdrawalAmount", amount);
-		if (entity.getBalance().compareTo(BigDecimal.ZERO) < 0) {
+		if (entity.balance().isNegative()) {
 			entity.markOverdrawn();
-			accountRepository.persist(entity);
-			Overdrawn payload = new Overdrawn(entity.getAccountNumber(), entity.getCustomerNumber(),
-					entity.getBalance(), entity.getOverdraftLimit());
-//		payload only ->	return emitter.send(payload).thenCompose(empty -> CompletableFuture.completedFuture(entity)); 
-			RecordHeaders headers = new RecordHeaders();
-			TracingKafkaUtils.inject(tracer.activeSpan().context(), headers, tracer);
-			OutgoingKafkaRecordMetadata<Object> kafkaMetadata = OutgoingKafkaRecordMetadata.builder()
-					.withHeaders(headers).build();
-
-			CompletableFuture<Account> future = new CompletableFuture<>();
-			emitter.send(Message.of(payload, () -> {
-				ackedMessages++;
-				future.complete(entity);
-				return CompletableFuture.completedFuture(null);
-			}, reason -> {
-				failures.add(reason);
-				return CompletableFuture.completedFuture(null);
-			}));
-			return future;
+			// Published to Kafka by OutboxRelay once this transaction commits
+			outbox.enqueue(new Overdrawn(entity.getAccountNumber(), entity.getCustomerNumber(),
+					entity.balance(), entity.overdraftLimit()));
 		}
 
+		customerSummaryRepository.update(entity, before);
 		accountRepository.persist(entity);
 		return CompletableFuture.completedFuture(entity);
 	}
 
 	@Incoming("overdraft-update") // will use another thread
-	@Blocking
+	@RunOnVirtualThread
 	@Transactional
-	public void processOverdraftUpdate(OverdraftLimitUpdate overdraftLimitUpdate) {
-		Account account = accountRepository.findByAccountNumber(overdraftLimitUpdate.accountNumber);
-		account.setOverdraftLimit(overdraftLimitUpdate.newOverdraftLimit);
+	public void processOverdraftUpdates(List<OverdraftLimitUpdate> overdraftLimitUpdates) {
+		// Only the newest limit per account in the batch matters; records of one account arrive in order
+		Map<Long, Money> latestLimits = new LinkedHashMap<>();
+		for (OverdraftLimitUpdate update : overdraftLimitUpdates) {
+			latestLimits.put(update.accountNumber, update.newOverdraftLimit);
+		}
+
+		for (Account account : accountRepository.updateOverdraftLimits(latestLimits)) {
+			accountChanged.fire(new AccountChanged(account));
+		}
 	}
 
 	@PUT
 	@Path("{accountNumber}/deposit")
+	@SerializedPerAccount(exceptHot = true)
+	@Idempotent
 	@Transactional
 	public Account deposit(@PathParam("accountNumber") Long accountNumber, String amount) {
 		Account entity = accountRepository.findByAccountNumber(accountNumber);
@@ -191,19 +415,56 @@ public class AccountResource {
 			throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
 		}
 
-		entity.addFunds(new BigDecimal(amount));
+		if (entity.getHotSlots() != null) {
+			hotAccounts.deposit(entity, Money.parse(amount));
+			return hotAccounts.withUnswept(entity);
+		}
+
+		CustomerSummary.Contribution before = CustomerSummary.Contribution.of(entity);
+		ledger.post(entity, Money.parse(amount));
+		customerSummaryRepository.update(entity, before);
+		accountChanged.fire(new AccountChanged(entity));
+		return entity;
+	}
+
+	// Splits the account's deposits across the given number of slots, see HotAccounts; 0 merges them back
+	@PUT
+	@Path("{accountNumber}/slots")
+	@SerializedPerAccount
+	@Transactional
+	public Account splitAccount(@PathParam("accountNumber") Long accountNumber, Integer slots) {
+		if (slots == null) {
+			throw new WebApplicationException("Slot count is required", 400);
+		}
+
+		Account entity = accountRepository.findByAccountNumber(accountNumber);
+		if (entity == null) {
+			throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
+		}
+
+		CustomerSummary.Contribution before = CustomerSummary.Contribution.of(entity);
+		hotAccounts.split(entity, slots);
+		customerSummaryRepository.update(entity, before);
+		accountChanged.fire(new AccountChanged(entity));
 		return entity;
 	}
 
 	@DELETE
 	@Path("{accountNumber}")
+	@SerializedPerAccount
+	@Transactional
 	public Response closeAccount(@PathParam("accountNumber") Long accountNumber) {
 		Account entity = accountRepository.findByAccountNumber(accountNumber);
 		if (entity == null) {
 			throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
 		}
 
+		CustomerSummary.Contribution before = CustomerSummary.Contribution.of(entity);
+		hotAccounts.merge(entity);
+		ledger.post(entity, entity.balance().negate());
 		entity.close();
+		customerSummaryRepository.update(entity, before);
+		accountChanged.fire(new AccountChanged(entity));
 		return Response.noContent().build();
 	}
 
@@ -218,6 +479,14 @@ public class AccountResource {
 			int code = 500;
 			if (exception instanceof WebApplicationException) {
 				code = ((WebApplicationException) exception).getResponse().getStatus();
+			} else if (causedBy(exception, OptimisticLockException.class)
+					|| causedBy(exception, ConstraintViolationException.class)) {
+				// Also a posting that lost its ledger sequence number to one committed by another instance
+				code = 409;
+			} else if (causedBy(exception, InvalidAmountException.class)) {
+				// A request amount with more than two decimals, out of range or not a number at all; overflow
+				// while applying a valid one is an ArithmeticException and stays a 500
+				code = 400;
 			}
 
 			JsonObjectBuilder entityBuilder = Json.createObjectBuilder()
@@ -230,5 +499,14 @@ public class AccountResource {
 			return Response.status(code).entity(entityBuilder.build()).build();
 		}
 
+		private boolean causedBy(Throwable exception, Class<? extends Throwable> type) {
+			for (Throwable t = exception; t != null; t = t.getCause()) {
+				if (type.isInstance(t)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
 	}
 }
@@ -0,0 +1,49 @@
+package org.acme.accounts;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+
+/**
+ * One sub-balance of a hot account, see {@link HotAccounts}. Deposits add to it in SQL and the
+ * sweep resets it to zero once it has been posted to the account; like {@link CustomerSummary} the
+ * amount is held in minor units so that the addition is plain {@code bigint} arithmetic.
+ */
+@Entity
+@IdClass(AccountSlotKey.class)
+public class AccountSlot {
+	@Id
+	private Long accountNumber;
+
+	@Id
+	private int slot;
+
+	private long balance;
+
+	protected AccountSlot() {
+	}
+
+	public AccountSlot(Long accountNumber, int slot) {
+		this.accountNumber = accountNumber;
+		this.slot = slot;
+	}
+
+	public Long getAccountNumber() {
+		return accountNumber;
+	}
+
+	public int getSlot() {
+		return slot;
+	}
+
+	public long getBalance() {
+		return balance;
+	}
+
+	// Returns the unswept amount and leaves the slot empty
+	long drain() {
+		long drained = balance;
+		balance = 0;
+		return drained;
+	}
+}
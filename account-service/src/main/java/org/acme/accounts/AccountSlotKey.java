@@ -0,0 +1,33 @@
+package org.acme.accounts;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Composite key of a hot account's slots, numbered 0 to Account.hotSlots - 1
+public class AccountSlotKey implements Serializable {
+	private Long accountNumber;
+	private int slot;
+
+	public AccountSlotKey() {
+	}
+
+	public AccountSlotKey(Long accountNumber, int slot) {
+		this.accountNumber = accountNumber;
+		this.slot = slot;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(accountNumber, slot);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof AccountSlotKey))
+			return false;
+		AccountSlotKey other = (AccountSlotKey) obj;
+		return Objects.equals(accountNumber, other.accountNumber) && slot == other.slot;
+	}
+}
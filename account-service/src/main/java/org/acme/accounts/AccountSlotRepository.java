@@ -0,0 +1,72 @@
+package org.acme.accounts;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.banking.Money;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+
+@ApplicationScoped
+public class AccountSlotRepository implements PanacheRepositoryBase<AccountSlot, AccountSlotKey> {
+
+	private static final int QUERY_CHUNK = 500;
+
+	// Only the one slot row is locked, and only until the depositing transaction commits
+	public int credit(Long accountNumber, int slot, Money amount) {
+		return getEntityManager()
+				.createQuery("update AccountSlot s set s.balance = s.balance + :amount"
+						+ " where s.accountNumber = :accountNumber and s.slot = :slot")
+				.setParameter("amount", amount.minorUnits())
+				.setParameter("accountNumber", accountNumber)
+				.setParameter("slot", slot)
+				.executeUpdate();
+	}
+
+	public Money unswept(Long accountNumber) {
+		return Money.ofMinor(getEntityManager()
+				.createQuery("select coalesce(sum(s.balance), 0) from AccountSlot s where s.accountNumber = :accountNumber",
+						Long.class)
+				.setParameter("accountNumber", accountNumber).getSingleResult());
+	}
+
+	// Only accounts that have slots are in the returned map
+	public Map<Long, Money> unswept(List<Long> accountNumbers) {
+		Map<Long, Money> unswept = new HashMap<>();
+		for (int from = 0; from < accountNumbers.size(); from += QUERY_CHUNK) {
+			List<Object[]> sums = getEntityManager()
+					.createQuery("select s.accountNumber, sum(s.balance) from AccountSlot s"
+							+ " where s.accountNumber in :accountNumbers group by s.accountNumber", Object[].class)
+					.setParameter("accountNumbers",
+							accountNumbers.subList(from, Math.min(from + QUERY_CHUNK, accountNumbers.size())))
+					.getResultList();
+			for (Object[] sum : sums) {
+				unswept.put((Long) sum[0], Money.ofMinor((Long) sum[1]));
+			}
+		}
+		return unswept;
+	}
+
+	// Locked in slot order, so concurrent sweeps of one account queue up rather than deadlock
+	public List<AccountSlot> lockAll(Long accountNumber) {
+		return find("accountNumber", Sort.ascending("slot"), accountNumber)
+				.withLock(LockModeType.PESSIMISTIC_WRITE).list();
+	}
+
+	// The account balance and its unswept deposits in one statement, or null if there is no such account
+	public Money logicalBalance(Long accountNumber) {
+		List<?> balances = getEntityManager()
+				.createNativeQuery("select " + Ledger.CURRENT_BALANCE + " + (select coalesce(sum(s.balance), 0)"
+						+ " from AccountSlot s where s.accountNumber = a.accountNumber) from account a"
+						+ " where a.accountNumber = ?1")
+				.setParameter(1, accountNumber).getResultList();
+		if (balances.isEmpty()) {
+			return null;
+		}
+		return Money.ofMinor(((Number) balances.get(0)).longValue());
+	}
+}
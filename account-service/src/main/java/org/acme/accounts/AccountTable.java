@@ -0,0 +1,171 @@
+package org.acme.accounts;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table from account number to the account's balance, overdraft limit,
+ * customer number, status and version, held column-wise in primitive arrays so that an entry costs
+ * a few dozen bytes and no objects. Readers are lock-free unless they race a writer; writers are
+ * serialized and only ever replace an entry with a newer version of the same account. Public only
+ * for the JMH benchmarks; AccountReadModel is its one user.
+ */
+public class AccountTable {
+	public static final long NO_LIMIT = Long.MIN_VALUE;
+
+	private static final long EMPTY = Long.MIN_VALUE;
+	private static final int MIN_CAPACITY = 1024;
+	private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+	private final StampedLock lock = new StampedLock();
+	private volatile Columns columns;
+	private int size;
+
+	private static final class Columns {
+		final long[] accountNumbers;
+		final long[] balances;
+		final long[] overdraftLimits;
+		final long[] customerNumbers;
+		final long[] versions;
+		final byte[] statuses;
+		final int mask;
+
+		Columns(int capacity) {
+			accountNumbers = new long[capacity];
+			Arrays.fill(accountNumbers, EMPTY);
+			balances = new long[capacity];
+			overdraftLimits = new long[capacity];
+			customerNumbers = new long[capacity];
+			versions = new long[capacity];
+			statuses = new byte[capacity];
+			mask = capacity - 1;
+		}
+
+		int slot(long accountNumber) {
+			int slot = mix(accountNumber) & mask;
+			while (accountNumbers[slot] != EMPTY && accountNumbers[slot] != accountNumber) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		long bytes() {
+			return (long) accountNumbers.length * (5 * Long.BYTES + 1);
+		}
+	}
+
+	public AccountTable(int expectedSize) {
+		columns = new Columns(capacityFor(expectedSize));
+	}
+
+	/**
+	 * The current entry for {@code accountNumber}, or null if there is none. Only the
+	 * returned view is allocated; it is read under an optimistic stamp and retried under the read
+	 * lock if a writer got in between.
+	 */
+	public AccountView get(long accountNumber) {
+		if (accountNumber == EMPTY) {
+			return null;
+		}
+		long stamp = lock.tryOptimisticRead();
+		AccountView view = read(accountNumber);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				view = read(accountNumber);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return view;
+	}
+
+	/**
+	 * Stores the account state if its version is newer than the one the table holds, and returns
+	 * whether it did.
+	 */
+	public boolean put(long accountNumber, long customerNumber, long balance, long overdraftLimit, AccountStatus status,
+			long version) {
+		if (accountNumber == EMPTY) {
+			throw new IllegalArgumentException("Account number " + accountNumber + " cannot be stored");
+		}
+		long stamp = lock.writeLock();
+		try {
+			Columns current = columns;
+			int slot = current.slot(accountNumber);
+			if (current.accountNumbers[slot] == accountNumber) {
+				// Also rejects a first-read load that raced a newer committed change
+				if (version <= current.versions[slot]) {
+					return false;
+				}
+			} else {
+				if ((size + 1) * 4L > current.accountNumbers.length * 3L) {
+					current = grow(current);
+					slot = current.slot(accountNumber);
+				}
+				size++;
+			}
+
+			current.accountNumbers[slot] = accountNumber;
+			current.customerNumbers[slot] = customerNumber;
+			current.balances[slot] = balance;
+			current.overdraftLimits[slot] = overdraftLimit;
+			current.versions[slot] = version;
+			current.statuses[slot] = (byte) status.ordinal();
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long bytes() {
+		return columns.bytes();
+	}
+
+	private AccountView read(long accountNumber) {
+		Columns current = columns;
+		int slot = current.slot(accountNumber);
+		if (current.accountNumbers[slot] != accountNumber) {
+			return null;
+		}
+		long overdraftLimit = current.overdraftLimits[slot];
+		return new AccountView(accountNumber, current.customerNumbers[slot], current.balances[slot],
+				overdraftLimit == NO_LIMIT ? null : overdraftLimit, STATUSES[current.statuses[slot]]);
+	}
+
+	private Columns grow(Columns from) {
+		Columns to = new Columns(from.accountNumbers.length * 2);
+		for (int i = 0; i < from.accountNumbers.length; i++) {
+			long accountNumber = from.accountNumbers[i];
+			if (accountNumber != EMPTY) {
+				int slot = to.slot(accountNumber);
+				to.accountNumbers[slot] = accountNumber;
+				to.customerNumbers[slot] = from.customerNumbers[i];
+				to.balances[slot] = from.balances[i];
+				to.overdraftLimits[slot] = from.overdraftLimits[i];
+				to.versions[slot] = from.versions[i];
+				to.statuses[slot] = from.statuses[i];
+			}
+		}
+		columns = to;
+		return to;
+	}
+
+	private static int capacityFor(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity * 3L < expectedSize * 4L) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	// Account numbers are often sequential; spread them so runs do not cluster in neighbouring slots
+	private static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,17 @@
+package org.acme.accounts;
+
+import java.math.BigDecimal;
+
+import org.acme.banking.Money;
+
+/**
+ * The read model's view of an account: what balance and status reads need, without the entity.
+ * Amounts are in minor units; overdraftLimit is null when the account has none.
+ */
+public record AccountView(long accountNumber, long customerNumber, long balance, Long overdraftLimit,
+		AccountStatus status) {
+
+	public BigDecimal balanceAmount() {
+		return Money.ofMinor(balance).toBigDecimal();
+	}
+}
@@ -0,0 +1,40 @@
+package org.acme.accounts;
+
+import org.acme.banking.Money;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CacheResult;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+
+@ApplicationScoped
+public class BalanceCache {
+
+	@Inject
+	AccountReads accountReads;
+
+	@Inject
+	@CacheName("account-balance")
+	Cache cache;
+
+	@CacheResult(cacheName = "account-balance")
+	public Money getBalance(Long accountNumber) {
+		Money balance = accountReads.findBalance(accountNumber);
+
+		if (balance == null) {
+			throw new WebApplicationException("Account with " + accountNumber + " does not exist.", 404);
+		}
+
+		return balance;
+	}
+
+	// Runs once the writing transaction has committed, so a concurrent miss cannot re-cache the old balance
+	// for longer than the expire-after-write bound, plus replica.max-staleness when the miss is read from the replica
+	void onAccountChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) AccountChanged event) {
+		cache.invalidate(event.accountNumber()).await().indefinitely();
+	}
+}
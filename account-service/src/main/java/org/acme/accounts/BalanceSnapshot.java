@@ -0,0 +1,49 @@
+package org.acme.accounts;
+
+import java.time.Instant;
+
+import org.acme.banking.Money;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+
+// The account balance after the posting with the same sequence; sequence 0 is the opening balance
+@Entity
+@IdClass(LedgerKey.class)
+public class BalanceSnapshot {
+	@Id
+	private Long accountNumber;
+
+	@Id
+	private long sequence;
+
+	private Money balance;
+	private Instant takenAt;
+
+	protected BalanceSnapshot() {
+	}
+
+	public BalanceSnapshot(Long accountNumber, long sequence, Money balance, Instant takenAt) {
+		this.accountNumber = accountNumber;
+		this.sequence = sequence;
+		this.balance = balance;
+		this.takenAt = takenAt;
+	}
+
+	public Long getAccountNumber() {
+		return accountNumber;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public Money getBalance() {
+		return balance;
+	}
+
+	public Instant getTakenAt() {
+		return takenAt;
+	}
+}
@@ -0,0 +1,19 @@
+package org.acme.accounts;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class BalanceSnapshotRepository implements PanacheRepositoryBase<BalanceSnapshot, LedgerKey> {
+
+	public BalanceSnapshot findLatest(Long accountNumber, long atOrBeforeSequence) {
+		return find("accountNumber = ?1 and sequence <= ?2", Sort.descending("sequence"), accountNumber,
+				atOrBeforeSequence).firstResult();
+	}
+
+	// The balance the account was opened or imported with
+	public BalanceSnapshot findOpening(Long accountNumber) {
+		return find("accountNumber", Sort.by("sequence"), accountNumber).firstResult();
+	}
+}
@@ -0,0 +1,119 @@
+package org.acme.accounts;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+
+/**
+ * Fallback for databases without COPY, such as the H2 database used in tests: rows are sent as
+ * batched prepared inserts of {@code batchSize} rows each, every one skipped when its account number
+ * already exists, so the update counts tell which rows went in.
+ */
+class BatchAccountSink implements AccountImportSink {
+	static final String INSERT_ACCOUNT = "insert into account (id, accountNumber, accountStatus, balance, customerName,"
+			+ " customerNumber, overdraftLimit, postingSequence, version) select cast(? as bigint), cast(? as bigint),"
+			+ " cast(? as integer), cast(? as bigint), cast(? as varchar(255)), cast(? as bigint), cast(? as bigint), 0, 0"
+			+ " where not exists (select 1 from account where accountNumber = ?)";
+	static final String INSERT_SNAPSHOT = "insert into BalanceSnapshot (accountNumber, sequence, balance, takenAt)"
+			+ " values (?, 0, ?, ?)";
+
+	private final Connection connection;
+	private final int batchSize;
+	private PreparedStatement insert;
+	private int batched;
+	private int rows;
+	private final BitSet inserted = new BitSet();
+
+	BatchAccountSink(Connection connection, int batchSize) {
+		this.connection = connection;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public void account(AccountImporter.Row row) throws SQLException {
+		if (insert == null) {
+			insert = connection.prepareStatement(INSERT_ACCOUNT);
+		}
+
+		insert.setLong(1, row.id());
+		insert.setLong(2, row.accountNumber());
+		insert.setInt(3, row.status().ordinal());
+		insert.setLong(4, row.balance());
+		insert.setString(5, row.customerName());
+		insert.setLong(6, row.customerNumber());
+		if (row.overdraftLimit() == null) {
+			insert.setNull(7, Types.BIGINT);
+		} else {
+			insert.setLong(7, row.overdraftLimit());
+		}
+		insert.setLong(8, row.accountNumber());
+		insert.addBatch();
+		if (++batched == batchSize) {
+			executeBatch();
+		}
+	}
+
+	@Override
+	public BitSet endAccounts() throws SQLException {
+		if (batched > 0) {
+			executeBatch();
+		}
+		BitSet result = (BitSet) inserted.clone();
+		inserted.clear();
+		rows = 0;
+		return result;
+	}
+
+	private void executeBatch() throws SQLException {
+		int[] counts = insert.executeBatch();
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] != 0) {
+				inserted.set(rows + i);
+			}
+		}
+		rows += counts.length;
+		batched = 0;
+	}
+
+	@Override
+	public void snapshots(long[] accountNumbers, long[] balances, int count, Instant takenAt) throws SQLException {
+		OffsetDateTime taken = takenAt.atOffset(ZoneOffset.UTC);
+		try (PreparedStatement snapshot = connection.prepareStatement(INSERT_SNAPSHOT)) {
+			for (int i = 0; i < count; i++) {
+				snapshot.setLong(1, accountNumbers[i]);
+				snapshot.setLong(2, balances[i]);
+				snapshot.setObject(3, taken);
+				snapshot.addBatch();
+				if ((i + 1) % batchSize == 0 || i + 1 == count) {
+					snapshot.executeBatch();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void abort() {
+		batched = 0;
+		rows = 0;
+		inserted.clear();
+		if (insert != null) {
+			try {
+				insert.clearBatch();
+			} catch (SQLException e) {
+				// The connection is rolled back next, which discards the batch anyway
+			}
+		}
+	}
+
+	@Override
+	public void close() throws SQLException {
+		if (insert != null) {
+			insert.close();
+		}
+	}
+}
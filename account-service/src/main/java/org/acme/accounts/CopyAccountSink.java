@@ -0,0 +1,171 @@
+package org.acme.accounts;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Streams rows into PostgreSQL with {@code COPY ... FROM STDIN}, encoding them as CSV into a
+ * fixed-size buffer that is handed to the driver whenever it fills up. Accounts are copied into a
+ * temporary staging table and moved into the account table with {@code ON CONFLICT DO NOTHING}, so
+ * a row repeating an existing account number is skipped on its own instead of failing the chunk.
+ */
+class CopyAccountSink implements AccountImportSink {
+	static final String CREATE_STAGING = "CREATE TEMP TABLE IF NOT EXISTS account_import"
+			+ " (LIKE account INCLUDING DEFAULTS) ON COMMIT DELETE ROWS";
+	static final String DROP_STAGING = "DROP TABLE IF EXISTS account_import";
+	static final String COPY_ACCOUNTS = "COPY account_import (id, accountNumber, accountStatus, balance, customerName,"
+			+ " customerNumber, overdraftLimit, postingSequence, version) FROM STDIN WITH (FORMAT csv)";
+	// Ordered by id, which follows the input, so the first of two rows with one account number wins
+	static final String MOVE_ACCOUNTS = "INSERT INTO account (id, accountNumber, accountStatus, balance, customerName,"
+			+ " customerNumber, overdraftLimit, postingSequence, version)"
+			+ " SELECT id, accountNumber, accountStatus, balance, customerName, customerNumber, overdraftLimit,"
+			+ " postingSequence, version FROM account_import ORDER BY id ON CONFLICT DO NOTHING RETURNING id";
+	static final String COPY_SNAPSHOTS = "COPY BalanceSnapshot (accountNumber, sequence, balance, takenAt)"
+			+ " FROM STDIN WITH (FORMAT csv)";
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Connection connection;
+	private final CopyManager copyManager;
+	private final StringBuilder line = new StringBuilder(256);
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int length;
+	private CopyIn copy;
+	// Ids of the chunk's rows in input order, ascending because ids are handed out in increasing blocks
+	private long[] ids = new long[1024];
+	private int rows;
+
+	CopyAccountSink(Connection connection) throws SQLException {
+		this.connection = connection;
+		this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(CREATE_STAGING);
+		}
+		// Committed on its own, so rolling back a chunk cannot take the staging table with it
+		connection.commit();
+	}
+
+	@Override
+	public void account(AccountImporter.Row row) throws SQLException {
+		if (copy == null) {
+			copy = copyManager.copyIn(COPY_ACCOUNTS);
+		}
+
+		line.setLength(0);
+		line.append(row.id()).append(',')
+				.append(row.accountNumber()).append(',')
+				.append(row.status().ordinal()).append(',')
+				.append(row.balance()).append(',');
+		quote(row.customerName());
+		line.append(',').append(row.customerNumber()).append(',');
+		if (row.overdraftLimit() != null) {
+			line.append(row.overdraftLimit().longValue());
+		}
+		line.append(",0,0\n");
+		write(line);
+
+		if (rows == ids.length) {
+			ids = Arrays.copyOf(ids, rows * 2);
+		}
+		ids[rows++] = row.id();
+	}
+
+	@Override
+	public BitSet endAccounts() throws SQLException {
+		end();
+		BitSet inserted = new BitSet(rows);
+		try (Statement statement = connection.createStatement();
+				ResultSet result = statement.executeQuery(MOVE_ACCOUNTS)) {
+			while (result.next()) {
+				inserted.set(Arrays.binarySearch(ids, 0, rows, result.getLong(1)));
+			}
+		}
+		rows = 0;
+		return inserted;
+	}
+
+	@Override
+	public void snapshots(long[] accountNumbers, long[] balances, int count, Instant takenAt) throws SQLException {
+		copy = copyManager.copyIn(COPY_SNAPSHOTS);
+		String taken = takenAt.toString();
+		for (int i = 0; i < count; i++) {
+			line.setLength(0);
+			line.append(accountNumbers[i]).append(",0,").append(balances[i]).append(',').append(taken).append('\n');
+			write(line);
+		}
+		end();
+	}
+
+	@Override
+	public void abort() {
+		length = 0;
+		rows = 0;
+		if (copy != null && copy.isActive()) {
+			try {
+				copy.cancelCopy();
+			} catch (SQLException e) {
+				// The connection is rolled back next, which also ends the copy
+			}
+		}
+		copy = null;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		// Connections go back to the pool, which would otherwise keep the table for the session's lifetime
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(DROP_STAGING);
+		}
+		connection.commit();
+	}
+
+	private void quote(String value) {
+		line.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				line.append('"');
+			}
+			line.append(c);
+		}
+		line.append('"');
+	}
+
+	private void write(CharSequence text) throws SQLException {
+		byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+		if (length + bytes.length > buffer.length) {
+			flush();
+		}
+		if (bytes.length > buffer.length) {
+			copy.writeToCopy(bytes, 0, bytes.length);
+			return;
+		}
+		System.arraycopy(bytes, 0, buffer, length, bytes.length);
+		length += bytes.length;
+	}
+
+	private void flush() throws SQLException {
+		if (length > 0) {
+			copy.writeToCopy(buffer, 0, length);
+			length = 0;
+		}
+	}
+
+	private void end() throws SQLException {
+		if (copy != null) {
+			flush();
+			copy.endCopy();
+			copy = null;
+		}
+	}
+}
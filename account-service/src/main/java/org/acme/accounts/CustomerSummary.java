@@ -0,0 +1,81 @@
+package org.acme.accounts;
+
+import java.math.BigDecimal;
+
+import org.acme.banking.Money;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Running totals over a customer's open accounts. Rows are only ever changed by adding a
+ * {@link Contribution} delta in SQL, so concurrent postings to different accounts of the same
+ * customer never read-modify-write the row. Amounts are held in minor units to keep that
+ * arithmetic in plain {@code bigint} columns.
+ */
+@Entity
+public class CustomerSummary {
+	@Id
+	private Long customerNumber;
+
+	private long accountCount;
+	private long totalBalance;
+	private long overdrawnAccounts;
+	private long overdraftExposure;
+
+	protected CustomerSummary() {
+	}
+
+	public Long getCustomerNumber() {
+		return customerNumber;
+	}
+
+	public long getAccountCount() {
+		return accountCount;
+	}
+
+	public BigDecimal getTotalBalance() {
+		return Money.ofMinor(totalBalance).toBigDecimal();
+	}
+
+	public long getOverdrawnAccounts() {
+		return overdrawnAccounts;
+	}
+
+	public BigDecimal getOverdraftExposure() {
+		return Money.ofMinor(overdraftExposure).toBigDecimal();
+	}
+
+	// What a single account adds to its customer's summary; closed accounts add nothing
+	public record Contribution(long accounts, long balance, long overdrawn, long exposure) {
+		public static final Contribution NONE = new Contribution(0, 0, 0, 0);
+
+		public static Contribution of(Account account) {
+			if (account.getAccountStatus() == AccountStatus.CLOSED) {
+				return NONE;
+			}
+			return of(account.getAccountStatus(), account.balance() == null ? 0 : account.balance().minorUnits());
+		}
+
+		public static Contribution of(AccountStatus status, long balance) {
+			if (status == AccountStatus.CLOSED) {
+				return NONE;
+			}
+			return new Contribution(1, balance, status == AccountStatus.OVERDRAWN ? 1 : 0, balance < 0 ? -balance : 0);
+		}
+
+		public Contribution plus(Contribution other) {
+			return new Contribution(accounts + other.accounts, Math.addExact(balance, other.balance),
+					overdrawn + other.overdrawn, Math.addExact(exposure, other.exposure));
+		}
+
+		public Contribution minus(Contribution other) {
+			return new Contribution(accounts - other.accounts, Math.subtractExact(balance, other.balance),
+					overdrawn - other.overdrawn, Math.subtractExact(exposure, other.exposure));
+		}
+
+		public boolean isEmpty() {
+			return equals(NONE);
+		}
+	}
+}
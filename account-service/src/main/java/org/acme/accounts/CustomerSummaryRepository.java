@@ -0,0 +1,74 @@
+package org.acme.accounts;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+
+@ApplicationScoped
+public class CustomerSummaryRepository implements PanacheRepositoryBase<CustomerSummary, Long> {
+
+	// Both add the delta to the customer's row, or insert it, in one statement: an update followed by an
+	// insert lets two first accounts of a customer both find no row and both insert it
+	static final String POSTGRES_UPSERT = "insert into CustomerSummary"
+			+ " (accountCount, totalBalance, overdrawnAccounts, overdraftExposure, customerNumber) values (?, ?, ?, ?, ?)"
+			+ " on conflict (customerNumber) do update set"
+			+ " accountCount = CustomerSummary.accountCount + excluded.accountCount,"
+			+ " totalBalance = CustomerSummary.totalBalance + excluded.totalBalance,"
+			+ " overdrawnAccounts = CustomerSummary.overdrawnAccounts + excluded.overdrawnAccounts,"
+			+ " overdraftExposure = CustomerSummary.overdraftExposure + excluded.overdraftExposure";
+	static final String MERGE = "merge into CustomerSummary s using (select"
+			+ " cast(? as bigint) accountCount, cast(? as bigint) totalBalance, cast(? as bigint) overdrawnAccounts,"
+			+ " cast(? as bigint) overdraftExposure, cast(? as bigint) customerNumber) d"
+			+ " on s.customerNumber = d.customerNumber"
+			+ " when matched then update set"
+			+ " accountCount = s.accountCount + d.accountCount,"
+			+ " totalBalance = s.totalBalance + d.totalBalance,"
+			+ " overdrawnAccounts = s.overdrawnAccounts + d.overdrawnAccounts,"
+			+ " overdraftExposure = s.overdraftExposure + d.overdraftExposure"
+			+ " when not matched then insert"
+			+ " (accountCount, totalBalance, overdrawnAccounts, overdraftExposure, customerNumber)"
+			+ " values (d.accountCount, d.totalBalance, d.overdrawnAccounts, d.overdraftExposure, d.customerNumber)";
+
+	@Inject
+	SessionFactory sessionFactory;
+
+	private String upsert;
+
+	@PostConstruct
+	void init() {
+		upsert = sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+				.getDialect() instanceof PostgreSQLDialect ? POSTGRES_UPSERT : MERGE;
+	}
+
+	// Parameters in order: accountCount, totalBalance, overdrawnAccounts, overdraftExposure and customerNumber
+	public String upsertSql() {
+		return upsert;
+	}
+
+	// Call with the account's contribution from before it was changed, in the transaction that changes it
+	@Transactional(TxType.MANDATORY)
+	public void update(Account account, CustomerSummary.Contribution before) {
+		CustomerSummary.Contribution delta = CustomerSummary.Contribution.of(account).minus(before);
+		if (delta.isEmpty()) {
+			return;
+		}
+
+		// Declared as touching CustomerSummary only, so Hibernate does not invalidate every cache region
+		getEntityManager().createNativeQuery(upsert).unwrap(NativeQuery.class)
+				.addSynchronizedEntityClass(CustomerSummary.class)
+				.setParameter(1, delta.accounts())
+				.setParameter(2, delta.balance())
+				.setParameter(3, delta.overdrawn())
+				.setParameter(4, delta.exposure())
+				.setParameter(5, account.getCustomerNumber())
+				.executeUpdate();
+	}
+}
@@ -0,0 +1,247 @@
+package org.acme.accounts;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.acme.banking.Money;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.jboss.logging.Logger;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * Splits heavily credited accounts into sub-balances. Deposits to a hot account are added to one of
+ * its {@link AccountSlot} rows, picked at random, instead of to the account row, so they contend on
+ * different rows and skip the per-account lock. The account's balance is its own plus its slots'.
+ * Anything that debits or closes the account first sweeps the slots into the account through the
+ * ledger, so the overdraft checks and {@code Overdrawn} events see the whole balance; a scheduled
+ * sweep does the same for accounts that only receive deposits.
+ * <p>
+ * Slot deposits are aggregated on purpose: they write no {@link LedgerEntry} and no customer summary
+ * change of their own. Each sweep posts what the slots gathered as one ledger entry and updates the
+ * summary once, so the ledger and summaries trail slot deposits by up to a sweep interval.
+ */
+@ApplicationScoped
+public class HotAccounts {
+
+	private static final Logger LOGGER = Logger.getLogger(HotAccounts.class);
+
+	@ConfigProperty(name = "hot-accounts.max-slots", defaultValue = "64")
+	int maxSlots;
+
+	@Inject
+	AccountRepository accountRepository;
+
+	@Inject
+	AccountSlotRepository slotRepository;
+
+	@Inject
+	Ledger ledger;
+
+	@Inject
+	CustomerSummaryRepository customerSummaryRepository;
+
+	@Inject
+	AccountLocks accountLocks;
+
+	@Inject
+	Event<AccountChanged> accountChanged;
+
+	// Hint for SerializedPerAccountInterceptor; the account row's hotSlots decides how a posting is applied
+	private final Set<Long> hot = ConcurrentHashMap.newKeySet();
+
+	void onStart(@Observes StartupEvent event) {
+		hot.addAll(QuarkusTransaction.requiringNew().call(this::findHot));
+	}
+
+	public boolean isHot(Long accountNumber) {
+		return accountNumber != null && hot.contains(accountNumber);
+	}
+
+	/**
+	 * Gives the account {@code slots} sub-balances, or makes it an ordinary account again for zero.
+	 * Whatever the current slots hold is swept into the account first.
+	 */
+	@Transactional(TxType.MANDATORY)
+	public void split(Account account, int slots) {
+		if (slots < 0 || slots > maxSlots) {
+			throw new WebApplicationException("Slot count must be between 0 and " + maxSlots, 400);
+		}
+		if (account.getAccountStatus() == AccountStatus.CLOSED) {
+			throw new WebApplicationException("Account " + account.getAccountNumber() + " is closed", 409);
+		}
+
+		merge(account);
+		if (slots == 0) {
+			return;
+		}
+		for (int slot = 0; slot < slots; slot++) {
+			slotRepository.persist(new AccountSlot(account.getAccountNumber(), slot));
+		}
+		account.markHot(slots);
+	}
+
+	// Sweeps the slots into the account and drops them
+	@Transactional(TxType.MANDATORY)
+	public void merge(Account account) {
+		if (account.getHotSlots() == null) {
+			return;
+		}
+		sweep(account);
+		slotRepository.delete("accountNumber", account.getAccountNumber());
+		account.removeHotStatus();
+	}
+
+	@Transactional(TxType.MANDATORY)
+	public void deposit(Account account, Money amount) {
+		int slot = ThreadLocalRandom.current().nextInt(account.getHotSlots());
+		if (slotRepository.credit(account.getAccountNumber(), slot, amount) == 0) {
+			// Slots are created and dropped with the account row's hotSlots, under its version
+			throw new WebApplicationException("Slots of account " + account.getAccountNumber() + " changed", 409);
+		}
+	}
+
+	/**
+	 * Posts everything the account's slots hold to the account as one ledger entry and empties them,
+	 * returning the amount posted. The slot rows stay locked until the transaction ends, holding up
+	 * deposits to the account for that long.
+	 */
+	@Transactional(TxType.MANDATORY)
+	public Money sweep(Account account) {
+		if (account.getHotSlots() == null) {
+			return Money.ZERO;
+		}
+		long unswept = 0;
+		for (AccountSlot slot : slotRepository.lockAll(account.getAccountNumber())) {
+			unswept = Math.addExact(unswept, slot.drain());
+		}
+		Money amount = Money.ofMinor(unswept);
+		if (amount.signum() != 0) {
+			ledger.post(account, amount);
+		}
+		return amount;
+	}
+
+	// The account's balance including deposits not swept into it yet, or null if there is no such account
+	public Money balance(Long accountNumber) {
+		return slotRepository.logicalBalance(accountNumber);
+	}
+
+	/**
+	 * Shows the account's unswept deposits in the balance of the returned instance. The account is
+	 * detached for that, so it must not have been changed in the current transaction, nor be used
+	 * for anything but the response afterwards.
+	 */
+	public Account withUnswept(Account account) {
+		if (account.getHotSlots() == null && !isHot(account.getAccountNumber())) {
+			return account;
+		}
+		Money unswept = slotRepository.unswept(account.getAccountNumber());
+		if (accountRepository.getEntityManager().contains(account)) {
+			accountRepository.getEntityManager().detach(account);
+		}
+		account.addFunds(unswept);
+		return account;
+	}
+
+	// As withUnswept(Account) for every account in the list, with one slot query for all the hot ones
+	public List<Account> withUnswept(List<Account> accounts) {
+		List<Long> hotAccountNumbers = new ArrayList<>();
+		for (Account account : accounts) {
+			if (account.getHotSlots() != null || isHot(account.getAccountNumber())) {
+				hotAccountNumbers.add(account.getAccountNumber());
+			}
+		}
+		if (hotAccountNumbers.isEmpty()) {
+			return accounts;
+		}
+		Map<Long, Money> unswept = slotRepository.unswept(hotAccountNumbers);
+		for (Account account : accounts) {
+			Money amount = unswept.get(account.getAccountNumber());
+			if (amount != null) {
+				if (accountRepository.getEntityManager().contains(account)) {
+					accountRepository.getEntityManager().detach(account);
+				}
+				account.addFunds(amount);
+			}
+		}
+		return accounts;
+	}
+
+	@Scheduled(every = "${hot-accounts.sweep-interval:1s}", concurrentExecution = ConcurrentExecution.SKIP)
+	void sweepAll() {
+		// Also picks up accounts split or merged by other instances
+		Set<Long> current = new HashSet<>(QuarkusTransaction.requiringNew().call(this::findHot));
+		hot.retainAll(current);
+		hot.addAll(current);
+		for (Long accountNumber : current) {
+			try {
+				sweep(accountNumber);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				LOGGER.warnf(e, "Sweep of hot account %d failed, retrying on the next run", accountNumber);
+			}
+		}
+	}
+
+	// Holds the account's lock like any other writer of the account row
+	public void sweep(Long accountNumber) throws InterruptedException {
+		Semaphore lock = accountLocks.acquire(accountNumber);
+		try {
+			QuarkusTransaction.requiringNew().run(() -> {
+				Account account = accountRepository.findByAccountNumber(accountNumber);
+				if (account == null) {
+					return;
+				}
+				CustomerSummary.Contribution before = CustomerSummary.Contribution.of(account);
+				if (sweep(account).signum() != 0) {
+					customerSummaryRepository.update(account, before);
+					accountChanged.fire(new AccountChanged(account));
+				}
+			});
+		} finally {
+			lock.release();
+		}
+	}
+
+	@Gauge(name = "hotAccounts", unit = MetricUnits.NONE, absolute = true, description = "Accounts whose deposits go to slots")
+	public long getHotCount() {
+		return hot.size();
+	}
+
+	void onAccountChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) AccountChanged event) {
+		Account account = event.account();
+		if (account.getHotSlots() != null) {
+			hot.add(account.getAccountNumber());
+		} else {
+			hot.remove(account.getAccountNumber());
+		}
+	}
+
+	private List<Long> findHot() {
+		return accountRepository.getEntityManager()
+				.createQuery("select a.accountNumber from Account a where a.hotSlots is not null", Long.class)
+				.getResultList();
+	}
+}
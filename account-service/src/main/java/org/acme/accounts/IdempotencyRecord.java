@@ -0,0 +1,51 @@
+package org.acme.accounts;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(indexes = @Index(name = "idempotency_record_expires_at_idx", columnList = "expiresAt"))
+public class IdempotencyRecord {
+	@Id
+	@Column(length = 255)
+	private String idempotencyKey;
+
+	@Column(length = 64)
+	private String fingerprint;
+
+	@Column(length = 4096)
+	private String response;
+
+	private Instant expiresAt;
+
+	protected IdempotencyRecord() {
+	}
+
+	public IdempotencyRecord(String idempotencyKey, String fingerprint, String response, Instant expiresAt) {
+		this.idempotencyKey = idempotencyKey;
+		this.fingerprint = fingerprint;
+		this.response = response;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public String getResponse() {
+		return response;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+}
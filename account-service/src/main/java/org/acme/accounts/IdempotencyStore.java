@@ -0,0 +1,99 @@
+package org.acme.accounts;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.jboss.logging.Logger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+
+/**
+ * Responses stored under their idempotency key: a bounded in-memory cache in front of the
+ * IdempotencyRecord table, both expiring after {@code idempotency.ttl}.
+ */
+@ApplicationScoped
+public class IdempotencyStore implements PanacheRepositoryBase<IdempotencyRecord, String> {
+
+	private static final Logger LOGGER = Logger.getLogger(IdempotencyStore.class);
+
+	@ConfigProperty(name = "idempotency.ttl", defaultValue = "24h")
+	Duration ttl;
+
+	@ConfigProperty(name = "idempotency.cache.max-size", defaultValue = "10000")
+	long cacheMaxSize;
+
+	private Cache<String, IdempotencyRecord> cache;
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder replays = new LongAdder();
+
+	@PostConstruct
+	void init() {
+		cache = Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfterWrite(ttl).build();
+	}
+
+	public IdempotencyRecord find(String idempotencyKey) {
+		requests.increment();
+		IdempotencyRecord record = cache.getIfPresent(idempotencyKey);
+		if (record == null) {
+			record = findById(idempotencyKey);
+			if (record == null) {
+				return null;
+			}
+			// Only committed records are cached, so a rolled back request never leaves a stale response behind
+			cache.put(idempotencyKey, record);
+		}
+		return record.getExpiresAt().isAfter(Instant.now()) ? record : null;
+	}
+
+	public void replayed() {
+		replays.increment();
+	}
+
+	@Transactional(TxType.MANDATORY)
+	public void save(String idempotencyKey, String fingerprint, String response) {
+		// Replaces a record that has expired but not been purged yet; a bulk delete so it runs before the insert
+		delete("idempotencyKey = ?1 and expiresAt <= ?2", idempotencyKey, Instant.now());
+		// Flushed here, so a concurrent request that stored the same key first fails this request before it commits
+		persist(new IdempotencyRecord(idempotencyKey, fingerprint, response, Instant.now().plus(ttl)));
+		flush();
+	}
+
+	@Gauge(name = "idempotentRequests", unit = MetricUnits.NONE, absolute = true, description = "Requests carrying an Idempotency-Key")
+	public long getRequests() {
+		return requests.sum();
+	}
+
+	@Gauge(name = "idempotentReplays", unit = MetricUnits.NONE, absolute = true, description = "Requests answered from a stored response")
+	public long getReplays() {
+		return replays.sum();
+	}
+
+	@Gauge(name = "idempotentReplayRatio", unit = MetricUnits.NONE, absolute = true, description = "Share of keyed requests that were duplicates")
+	public double getReplayRatio() {
+		long total = requests.sum();
+		return total == 0 ? 0 : (double) replays.sum() / total;
+	}
+
+	@Scheduled(every = "${idempotency.purge.interval:10m}", concurrentExecution = ConcurrentExecution.SKIP)
+	@Transactional
+	void purgeExpired() {
+		long purged = delete("expiresAt < ?1", Instant.now());
+		if (purged > 0) {
+			LOGGER.debugf("Purged %d expired idempotency records", purged);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package org.acme.accounts;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.interceptor.InterceptorBinding;
+
+/**
+ * Makes a request carrying an {@code Idempotency-Key} header apply at most once: the first response
+ * is stored in the same transaction as the change it describes and returned unchanged to any retry
+ * with the same key.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface Idempotent {
+}
@@ -0,0 +1,106 @@
+package org.acme.accounts;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.json.bind.Jsonb;
+import jakarta.ws.rs.WebApplicationException;
+
+@Idempotent
+@Interceptor
+// Inside both the per-account lock and the @Transactional interceptor, so the stored response commits with the change
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 250)
+public class IdempotentInterceptor {
+
+	public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+	@Inject
+	IdempotencyStore store;
+
+	@Inject
+	HttpServerRequest request;
+
+	@Inject
+	Jsonb jsonb;
+
+	@AroundInvoke
+	Object once(InvocationContext context) throws Exception {
+		String key = request.getHeader(IDEMPOTENCY_KEY);
+		if (key == null || key.isBlank()) {
+			return context.proceed();
+		}
+		if (key.length() > 255) {
+			throw new WebApplicationException(IDEMPOTENCY_KEY + " must be at most 255 characters", 400);
+		}
+
+		String fingerprint = fingerprint(context);
+		Type responseType = responseType(context);
+
+		IdempotencyRecord record = store.find(key);
+		if (record != null) {
+			return replay(record, context, store, jsonb);
+		}
+
+		Object result = context.proceed();
+		if (result instanceof CompletionStage<?> stage) {
+			// Only stages that completed inside the transaction can be stored with it
+			CompletableFuture<?> future = stage.toCompletableFuture();
+			if (future.isDone() && !future.isCompletedExceptionally()) {
+				store.save(key, fingerprint, jsonb.toJson(future.join(), responseType));
+			}
+		} else {
+			store.save(key, fingerprint, jsonb.toJson(result, responseType));
+		}
+		return result;
+	}
+
+	// The stored response, as the intercepted method would have returned it
+	static Object replay(IdempotencyRecord record, InvocationContext context, IdempotencyStore store, Jsonb jsonb)
+			throws NoSuchAlgorithmException {
+		if (!record.getFingerprint().equals(fingerprint(context))) {
+			throw new WebApplicationException(IDEMPOTENCY_KEY + " was already used for a different request", 422);
+		}
+		store.replayed();
+		Type responseType = responseType(context);
+		Object response = jsonb.fromJson(record.getResponse(), responseType);
+		return responseType == context.getMethod().getGenericReturnType()
+				? response
+				: CompletableFuture.completedFuture(response);
+	}
+
+	// Hash of the method and its simple arguments (path parameters and request body), never injected context objects
+	private static String fingerprint(InvocationContext context) throws NoSuchAlgorithmException {
+		List<Object> arguments = new ArrayList<>();
+		for (Object parameter : context.getParameters()) {
+			if (parameter == null || parameter instanceof Number || parameter instanceof CharSequence) {
+				arguments.add(parameter);
+			}
+		}
+		String request = context.getMethod().getDeclaringClass().getSimpleName() + "."
+				+ context.getMethod().getName() + arguments;
+		return HexFormat.of().formatHex(
+				MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static Type responseType(InvocationContext context) {
+		Type type = context.getMethod().getGenericReturnType();
+		if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == CompletionStage.class) {
+			return parameterized.getActualTypeArguments()[0];
+		}
+		return type;
+	}
+}
@@ -0,0 +1,58 @@
+package org.acme.accounts;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.json.bind.Jsonb;
+
+/**
+ * Answers the loser of two concurrent requests with the same {@code Idempotency-Key} with the
+ * winner's stored response. Hot-account deposits skip the per-account lock, so both can miss the
+ * key and apply their change; the second to store its response fails on the key and rolls back.
+ */
+@Idempotent
+@Interceptor
+// Outside the @Transactional interceptor, so the failed transaction has rolled back and the winner's record committed
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 150)
+public class IdempotentReplayInterceptor {
+
+	@Inject
+	IdempotencyStore store;
+
+	@Inject
+	HttpServerRequest request;
+
+	@Inject
+	Jsonb jsonb;
+
+	@AroundInvoke
+	Object replayOnConflict(InvocationContext context) throws Exception {
+		try {
+			return context.proceed();
+		} catch (Exception e) {
+			String key = request.getHeader(IdempotentInterceptor.IDEMPOTENCY_KEY);
+			if (key == null || key.isBlank() || !isConstraintViolation(e)) {
+				throw e;
+			}
+			IdempotencyRecord record = store.find(key);
+			if (record == null) {
+				throw e;
+			}
+			return IdempotentInterceptor.replay(record, context, store, jsonb);
+		}
+	}
+
+	private boolean isConstraintViolation(Throwable exception) {
+		for (Throwable t = exception; t != null; t = t.getCause()) {
+			if (t instanceof ConstraintViolationException) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,65 @@
+package org.acme.accounts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk account import. Every rejected row is counted, but only the first
+ * {@code maxRejects} are listed so that a badly formed file cannot grow the report without bound.
+ */
+public class ImportReport {
+	public record Reject(long line, String reason) {
+	}
+
+	private final int maxRejects;
+	private final List<Reject> rejects = new ArrayList<>();
+	private long imported;
+	private long rejected;
+	private long elapsedMillis;
+
+	ImportReport(int maxRejects) {
+		this.maxRejects = maxRejects;
+	}
+
+	void imported(long rows) {
+		imported += rows;
+	}
+
+	void reject(long line, String reason) {
+		rejected++;
+		if (rejects.size() < maxRejects) {
+			rejects.add(new Reject(line, reason));
+		}
+	}
+
+	void rejectChunk(long firstLine, long lastLine, int rows, String reason) {
+		rejected += rows;
+		if (rejects.size() < maxRejects) {
+			rejects.add(new Reject(firstLine, "Rows on lines " + firstLine + "-" + lastLine + " not imported: " + reason));
+		}
+	}
+
+	void finished(long elapsedNanos) {
+		this.elapsedMillis = elapsedNanos / 1_000_000;
+	}
+
+	public long getImported() {
+		return imported;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+	public List<Reject> getRejects() {
+		return rejects;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public long getRowsPerSecond() {
+		return elapsedMillis == 0 ? imported : imported * 1000 / elapsedMillis;
+	}
+}
@@ -0,0 +1,108 @@
+package org.acme.accounts;
+
+import java.time.Instant;
+
+import org.acme.banking.Money;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+
+/**
+ * Append-only record of every change to an account balance. Each posting gets the account's next
+ * sequence number and a balance snapshot is written every {@code ledger.snapshot.interval} postings,
+ * so the balance after any posting is a snapshot plus fewer than that many ledger entries. The
+ * account row is folded forward with each snapshot and otherwise not written: its current balance
+ * is projected from the row and the entries since, see {@link #CURRENT_BALANCE}.
+ */
+@ApplicationScoped
+public class Ledger {
+
+	// SQL for the current balance and last posting sequence of the account row aliased a
+	public static final String CURRENT_BALANCE = "a.balance + coalesce((select sum(e.amount) from LedgerEntry e"
+			+ " where e.accountNumber = a.accountNumber and e.sequence > a.postingSequence), 0)";
+	public static final String LAST_SEQUENCE = "coalesce((select max(e.sequence) from LedgerEntry e"
+			+ " where e.accountNumber = a.accountNumber), a.postingSequence)";
+
+	// SQL for the sum and last sequence of an account's ledger entries after the row's postingSequence;
+	// a primary key range scan, never longer than one snapshot interval
+	public static final String TAIL = "select coalesce(sum(amount), 0), max(sequence) from LedgerEntry"
+			+ " where accountNumber = ?1 and sequence > ?2";
+
+	@Inject
+	LedgerRepository ledgerRepository;
+
+	@Inject
+	BalanceSnapshotRepository snapshotRepository;
+
+	@ConfigProperty(name = "ledger.snapshot.interval", defaultValue = "100")
+	long snapshotInterval;
+
+	// Records the balance a new account is opened with as its sequence 0 snapshot
+	@Transactional(TxType.MANDATORY)
+	public void open(Account account) {
+		snapshotRepository.persist(new BalanceSnapshot(account.getAccountNumber(), account.getPostingSequence(),
+				account.balance(), Instant.now()));
+	}
+
+	/**
+	 * Appends the posting, and every {@code ledger.snapshot.interval} postings a snapshot that the
+	 * account row is folded up to. A concurrent posting to the account from another instance takes
+	 * the same sequence number and fails on the ledger's primary key.
+	 */
+	@Transactional(TxType.MANDATORY)
+	public LedgerEntry post(Account account, Money amount) {
+		LedgerEntry entry = append(account, amount);
+		ledgerRepository.persist(entry);
+
+		BalanceSnapshot snapshot = snapshotIfDue(account, entry);
+		if (snapshot != null) {
+			snapshotRepository.persist(snapshot);
+			account.fold();
+		}
+		return entry;
+	}
+
+	// Applies the amount to the account's tail and returns the entry to persist for it
+	public LedgerEntry append(Account account, Money amount) {
+		account.addFunds(amount);
+		return new LedgerEntry(account.getAccountNumber(), account.nextPostingSequence(), amount, Instant.now());
+	}
+
+	public BalanceSnapshot snapshotIfDue(Account account, LedgerEntry entry) {
+		if (entry.getSequence() % snapshotInterval != 0) {
+			return null;
+		}
+		return new BalanceSnapshot(account.getAccountNumber(), entry.getSequence(), account.balance(),
+				entry.getPostedAt());
+	}
+
+	public Money balanceAt(Long accountNumber, long sequence) {
+		BalanceSnapshot snapshot = snapshotRepository.findLatest(accountNumber, sequence);
+		if (snapshot == null) {
+			return null;
+		}
+
+		Money balance = snapshot.getBalance();
+		for (Money amount : ledgerRepository.findAmounts(accountNumber, snapshot.getSequence(), sequence)) {
+			balance = balance.plus(amount);
+		}
+		return balance;
+	}
+
+	// Null before the account was opened
+	public Money balanceAt(Long accountNumber, Instant at) {
+		Long sequence = ledgerRepository.lastSequenceAt(accountNumber, at);
+		if (sequence != null) {
+			return balanceAt(accountNumber, sequence);
+		}
+
+		BalanceSnapshot opening = snapshotRepository.findOpening(accountNumber);
+		if (opening == null || opening.getTakenAt().isAfter(at)) {
+			return null;
+		}
+		return opening.getBalance();
+	}
+}
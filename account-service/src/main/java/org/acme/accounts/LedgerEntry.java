@@ -0,0 +1,56 @@
+package org.acme.accounts;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.acme.banking.Money;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@IdClass(LedgerKey.class)
+@Table(indexes = @Index(name = "ledger_entry_posted_at_idx", columnList = "accountNumber, postedAt"))
+public class LedgerEntry {
+	@Id
+	private Long accountNumber;
+
+	@Id
+	private long sequence;
+
+	private Money amount;
+	private Instant postedAt;
+
+	protected LedgerEntry() {
+	}
+
+	public LedgerEntry(Long accountNumber, long sequence, Money amount, Instant postedAt) {
+		this.accountNumber = accountNumber;
+		this.sequence = sequence;
+		this.amount = amount;
+		this.postedAt = postedAt;
+	}
+
+	public Money amount() {
+		return amount;
+	}
+
+	public Long getAccountNumber() {
+		return accountNumber;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public BigDecimal getAmount() {
+		return amount.toBigDecimal();
+	}
+
+	public Instant getPostedAt() {
+		return postedAt;
+	}
+}
@@ -0,0 +1,33 @@
+package org.acme.accounts;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Composite key of ledger rows: an account's postings are numbered 1, 2, 3, ... by Account.postingSequence
+public class LedgerKey implements Serializable {
+	private Long accountNumber;
+	private long sequence;
+
+	public LedgerKey() {
+	}
+
+	public LedgerKey(Long accountNumber, long sequence) {
+		this.accountNumber = accountNumber;
+		this.sequence = sequence;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(accountNumber, sequence);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof LedgerKey))
+			return false;
+		LedgerKey other = (LedgerKey) obj;
+		return Objects.equals(accountNumber, other.accountNumber) && sequence == other.sequence;
+	}
+}
@@ -0,0 +1,40 @@
+package org.acme.accounts;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.acme.banking.Money;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class LedgerRepository implements PanacheRepositoryBase<LedgerEntry, LedgerKey> {
+
+	public List<LedgerEntry> findEntries(Long accountNumber, long afterSequence, int limit) {
+		return find("accountNumber = ?1 and sequence > ?2", Sort.by("sequence"), accountNumber, afterSequence)
+				.page(0, limit).list();
+	}
+
+	// A primary key range scan, never longer than one snapshot interval when called from Ledger
+	public List<Money> findAmounts(Long accountNumber, long afterSequence, long toSequence) {
+		return getEntityManager()
+				.createQuery("select e.amount from LedgerEntry e where e.accountNumber = :accountNumber"
+						+ " and e.sequence > :afterSequence and e.sequence <= :toSequence", Money.class)
+				.setParameter("accountNumber", accountNumber)
+				.setParameter("afterSequence", afterSequence)
+				.setParameter("toSequence", toSequence)
+				.getResultList();
+	}
+
+	// Null when the account had no postings yet at that time
+	public Long lastSequenceAt(Long accountNumber, Instant at) {
+		return getEntityManager()
+				.createQuery("select max(e.sequence) from LedgerEntry e where e.accountNumber = :accountNumber"
+						+ " and e.postedAt <= :at", Long.class)
+				.setParameter("accountNumber", accountNumber)
+				.setParameter("at", at)
+				.getSingleResult();
+	}
+}
@@ -0,0 +1,20 @@
+package org.acme.accounts;
+
+import org.acme.banking.Money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+	@Override
+	public Long convertToDatabaseColumn(Money money) {
+		return money == null ? null : money.minorUnits();
+	}
+
+	@Override
+	public Money convertToEntityAttribute(Long minorUnits) {
+		return minorUnits == null ? null : Money.ofMinor(minorUnits);
+	}
+}
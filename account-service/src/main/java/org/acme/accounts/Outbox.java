@@ -0,0 +1,64 @@
+package org.acme.accounts;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.acme.banking.events.Overdrawn;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.kafka.TracingKafkaUtils;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+
+@ApplicationScoped
+public class Outbox {
+
+	@Inject
+	OutboxRepository outboxRepository;
+
+	@Inject
+	Jsonb jsonb;
+
+	@Inject
+	Tracer tracer;
+
+	// Written in the caller's transaction, so the event exists if and only if the balance change commits
+	@Transactional(TxType.MANDATORY)
+	public void enqueue(Overdrawn payload) {
+		outboxRepository.persist(event(payload));
+	}
+
+	// Unsaved; the reactive routes insert it with their own SQL client in their own transaction
+	public OutboxEvent event(Overdrawn payload) {
+		OutboxEvent event = new OutboxEvent();
+		event.setAccountNumber(payload.accountNumber);
+		event.setEventType(Overdrawn.class.getSimpleName());
+		event.setPayload(jsonb.toJson(payload));
+		event.setTraceHeaders(traceHeaders());
+		event.setCreatedAt(Instant.now());
+		return event;
+	}
+
+	private String traceHeaders() {
+		Span span = tracer.activeSpan();
+		if (span == null) {
+			return null;
+		}
+
+		RecordHeaders headers = new RecordHeaders();
+		TracingKafkaUtils.inject(span.context(), headers, tracer);
+		Map<String, String> values = new HashMap<>();
+		for (Header header : headers) {
+			values.put(header.key(), new String(header.value(), StandardCharsets.UTF_8));
+		}
+		return jsonb.toJson(values);
+	}
+}
@@ -0,0 +1,82 @@
+package org.acme.accounts;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(indexes = @Index(name = "outbox_event_unsent_idx", columnList = "sentAt, id"))
+public class OutboxEvent {
+	@Id
+	@GeneratedValue
+	private Long id;
+
+	private Long accountNumber;
+	private String eventType;
+
+	@Column(length = 2048)
+	private String payload;
+
+	@Column(length = 1024)
+	private String traceHeaders;
+
+	private Instant createdAt;
+	private Instant sentAt;
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getAccountNumber() {
+		return accountNumber;
+	}
+
+	public void setAccountNumber(Long accountNumber) {
+		this.accountNumber = accountNumber;
+	}
+
+	public String getEventType() {
+		return eventType;
+	}
+
+	public void setEventType(String eventType) {
+		this.eventType = eventType;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public void setPayload(String payload) {
+		this.payload = payload;
+	}
+
+	public String getTraceHeaders() {
+		return traceHeaders;
+	}
+
+	public void setTraceHeaders(String traceHeaders) {
+		this.traceHeaders = traceHeaders;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Instant getSentAt() {
+		return sentAt;
+	}
+
+	public void markSent(Instant sentAt) {
+		this.sentAt = sentAt;
+	}
+}
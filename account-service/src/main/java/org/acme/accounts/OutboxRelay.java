@@ -0,0 +1,170 @@
+package org.acme.accounts;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.acme.banking.events.Overdrawn;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.jboss.logging.Logger;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+
+@ApplicationScoped
+public class OutboxRelay {
+
+	private static final Logger LOGGER = Logger.getLogger(OutboxRelay.class);
+
+	@Inject
+	OutboxRepository outboxRepository;
+
+	@Inject
+	@Channel("account-overdrawn")
+	Emitter<Overdrawn> emitter;
+
+	@Inject
+	Jsonb jsonb;
+
+	@ConfigProperty(name = "outbox.relay.batch-size", defaultValue = "500")
+	int batchSize;
+
+	@ConfigProperty(name = "outbox.relay.ack-timeout", defaultValue = "10s")
+	Duration ackTimeout;
+
+	volatile long backlog;
+	volatile long lagMillis;
+
+	@Scheduled(every = "${outbox.relay.interval:1s}", concurrentExecution = ConcurrentExecution.SKIP)
+	void relay() {
+		while (publishPending() == batchSize) {
+			// keep draining while full batches come back
+		}
+	}
+
+	public int publishPending() {
+		int published = QuarkusTransaction.requiringNew().call(() -> {
+			List<OutboxEvent> batch = outboxRepository.lockUnsent(batchSize);
+			List<CompletableFuture<Void>> acks = new ArrayList<>(batch.size());
+			// Accounts are published in parallel, but each account's events one at a time: an event is only
+			// sent once the one before it was acknowledged, and never after a failure or the batch deadline
+			AtomicBoolean open = new AtomicBoolean(true);
+			Map<Long, CompletableFuture<Void>> previous = new HashMap<>();
+			for (OutboxEvent event : batch) {
+				CompletableFuture<Void> before = previous.get(event.getAccountNumber());
+				CompletableFuture<Void> ack = before == null ? send(event)
+						: before.thenCompose(acked -> open.get() ? send(event)
+								: CompletableFuture.failedFuture(new TimeoutException("not sent within " + ackTimeout)));
+				previous.put(event.getAccountNumber(), ack);
+				acks.add(ack);
+			}
+
+			awaitAcks(acks);
+			open.set(false);
+
+			// An event is unacknowledged here only if no later event of its account was sent, so leaving them
+			// all unsent has the next run publish them again in order
+			Instant sentAt = Instant.now();
+			int sent = 0;
+			for (int i = 0; i < batch.size(); i++) {
+				OutboxEvent event = batch.get(i);
+				if (acknowledged(acks.get(i), event)) {
+					event.markSent(sentAt);
+					sent++;
+				}
+			}
+			return sent;
+		});
+
+		updateBacklog();
+		return published;
+	}
+
+	@Gauge(name = "outboxBacklog", unit = MetricUnits.NONE, absolute = true, description = "Outbox events not yet published to Kafka")
+	public long getBacklog() {
+		return backlog;
+	}
+
+	@Gauge(name = "outboxLag", unit = MetricUnits.MILLISECONDS, absolute = true, description = "Age of the oldest unpublished outbox event")
+	public long getLagMillis() {
+		return lagMillis;
+	}
+
+	// Keyed by account number so every event of an account lands on the same partition, in order
+	private CompletableFuture<Void> send(OutboxEvent event) {
+		Overdrawn payload = jsonb.fromJson(event.getPayload(), Overdrawn.class);
+		OutgoingKafkaRecordMetadata<Long> metadata = OutgoingKafkaRecordMetadata.<Long>builder()
+				.withKey(event.getAccountNumber()).withHeaders(headers(event)).build();
+
+		CompletableFuture<Void> ack = new CompletableFuture<>();
+		emitter.send(Message.of(payload, () -> {
+			ack.complete(null);
+			return CompletableFuture.completedFuture(null);
+		}, reason -> {
+			ack.completeExceptionally(reason);
+			return CompletableFuture.completedFuture(null);
+		}).addMetadata(metadata));
+		return ack;
+	}
+
+	// One deadline for the whole batch, so a slow broker cannot hold the transaction for a timeout per event
+	private void awaitAcks(List<CompletableFuture<Void>> acks) {
+		try {
+			CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).get(ackTimeout.toMillis(),
+					TimeUnit.MILLISECONDS);
+		} catch (ExecutionException | TimeoutException e) {
+			// Sorted out per event by acknowledged()
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private boolean acknowledged(CompletableFuture<Void> ack, OutboxEvent event) {
+		if (ack.isDone() && !ack.isCompletedExceptionally()) {
+			return true;
+		}
+		// Left unsent, the next run publishes it again: delivery is at least once
+		String reason = ack.isDone() ? ack.exceptionNow().getMessage() : "no ack within " + ackTimeout;
+		LOGGER.warnf("Outbox event %d for account %d was not acknowledged: %s", event.getId(),
+				event.getAccountNumber(), reason);
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private RecordHeaders headers(OutboxEvent event) {
+		RecordHeaders headers = new RecordHeaders();
+		if (event.getTraceHeaders() != null) {
+			Map<String, String> values = jsonb.fromJson(event.getTraceHeaders(), HashMap.class);
+			values.forEach((key, value) -> headers.add(key, value.getBytes(StandardCharsets.UTF_8)));
+		}
+		return headers;
+	}
+
+	private void updateBacklog() {
+		QuarkusTransaction.requiringNew().run(() -> {
+			backlog = outboxRepository.countUnsent();
+			Instant oldest = outboxRepository.oldestUnsentCreatedAt();
+			lagMillis = oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis();
+		});
+	}
+}
@@ -0,0 +1,28 @@
+package org.acme.accounts;
+
+import java.time.Instant;
+import java.util.List;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+
+@ApplicationScoped
+public class OutboxRepository implements PanacheRepository<OutboxEvent> {
+
+	// Row locks make concurrent relays wait for each other, so events leave in id order
+	public List<OutboxEvent> lockUnsent(int limit) {
+		return find("sentAt is null", Sort.by("id")).withLock(LockModeType.PESSIMISTIC_WRITE).page(0, limit).list();
+	}
+
+	public long countUnsent() {
+		return count("sentAt is null");
+	}
+
+	public Instant oldestUnsentCreatedAt() {
+		return getEntityManager()
+				.createQuery("select min(e.createdAt) from OutboxEvent e where e.sentAt is null", Instant.class)
+				.getSingleResult();
+	}
+}
@@ -0,0 +1,92 @@
+package org.acme.accounts;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Attributes connection pool usage to the AccountResource method being served and, when the caller
+ * sends its remaining time budget in milliseconds as a {@value #DEADLINE_HEADER} header, fails the
+ * request at once with 503 if it needs a primary connection and the pool's expected wait is already
+ * longer than that budget.
+ */
+@Provider
+@Priority(Priorities.USER)
+public class PoolAdmissionFilter implements ContainerRequestFilter, ContainerResponseFilter {
+	public static final String DEADLINE_HEADER = "Request-Timeout";
+
+	@ConfigProperty(name = "pool.admission.enabled", defaultValue = "true")
+	boolean enabled;
+
+	@Inject
+	PoolUsage poolUsage;
+
+	@Inject
+	AccountReadModel accountReadModel;
+
+	@Inject
+	AccountReads accountReads;
+
+	@Context
+	ResourceInfo resourceInfo;
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) {
+		Method method = resourceInfo.getResourceMethod();
+		if (method == null || method.getDeclaringClass() != AccountResource.class) {
+			return;
+		}
+		poolUsage.enter(method.getName());
+
+		Duration deadline = deadline(requestContext.getHeaderString(DEADLINE_HEADER));
+		if (!enabled || deadline == null || !usesPrimary(method.getName())) {
+			return;
+		}
+
+		Duration expectedWait = poolUsage.expectedWait();
+		if (expectedWait.compareTo(deadline) > 0) {
+			poolUsage.rejected(method.getName());
+			throw new WebApplicationException("Database connections are saturated: expected wait of "
+					+ expectedWait.toMillis() + " ms exceeds the request deadline of " + deadline.toMillis() + " ms", 503);
+		}
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+		poolUsage.exit();
+	}
+
+	// Reads the read model or the replica serves never queue for the primary pool, so its wait is no reason to shed them
+	private boolean usesPrimary(String method) {
+		return switch (method) {
+			case "getBalance", "getBalanceJWT", "getStatus" -> !accountReadModel.isReady();
+			case "getAccount", "allAccounts" -> accountReads.route() == AccountReads.Route.PRIMARY;
+			default -> true;
+		};
+	}
+
+	private static Duration deadline(String header) {
+		if (header == null) {
+			return null;
+		}
+		try {
+			long millis = Long.parseLong(header.strip());
+			return millis < 0 ? null : Duration.ofMillis(millis);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package org.acme.accounts;
+
+import org.hibernate.SessionEventListener;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Times how long each Hibernate session waits for a pooled JDBC connection and how long it holds
+ * it, reporting both to {@link PoolUsage}. Hibernate creates one instance per session from the
+ * {@code hibernate.session.events.auto} setting, so the bean is looked up rather than injected.
+ */
+@RegisterForReflection
+public class PoolTimingListener implements SessionEventListener {
+
+	private final PoolUsage poolUsage = Arc.container().instance(PoolUsage.class).get();
+
+	private String endpoint;
+	private long acquisitionStarted;
+	private long acquired;
+	private boolean held;
+
+	@Override
+	public void jdbcConnectionAcquisitionStart() {
+		endpoint = poolUsage.acquisitionStarted();
+		acquisitionStarted = System.nanoTime();
+	}
+
+	// Hibernate calls this from a finally block, so it also ends an acquisition that failed
+	@Override
+	public void jdbcConnectionAcquisitionEnd() {
+		acquired = System.nanoTime();
+		poolUsage.acquisitionEnded(endpoint, acquired - acquisitionStarted);
+		held = false;
+	}
+
+	// The first statement, or the release, is what shows that the acquisition succeeded
+	@Override
+	public void jdbcPrepareStatementStart() {
+		connectionHeld();
+	}
+
+	@Override
+	public void jdbcConnectionReleaseStart() {
+		if (endpoint != null) {
+			connectionHeld();
+			poolUsage.released(endpoint, System.nanoTime() - acquired);
+			endpoint = null;
+		}
+	}
+
+	private void connectionHeld() {
+		if (endpoint != null && !held) {
+			poolUsage.held(endpoint);
+			held = true;
+		}
+	}
+}
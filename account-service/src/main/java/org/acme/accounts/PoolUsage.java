@@ -0,0 +1,116 @@
+package org.acme.accounts;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.microprofile.metrics.ConcurrentGauge;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Connection pool usage of the primary datasource, broken down by the AccountResource method that
+ * holds or waits for the connection. Per-method timings come from {@link PoolTimingListener}; the
+ * pool-wide active, available and awaiting counts from Agroal's own metrics, which is also where
+ * {@link #expectedWait()} gets the queue length from.
+ */
+@ApplicationScoped
+public class PoolUsage {
+	static final String OTHER = "other";
+
+	// Weight of a new sample in the moving average of connection hold time
+	private static final int HOLD_SMOOTHING = 8;
+
+	private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	@Inject
+	@RegistryType(type = MetricRegistry.Type.APPLICATION)
+	MetricRegistry metricRegistry;
+
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+	private final AtomicLong averageHoldNanos = new AtomicLong();
+
+	private record Endpoint(Timer acquisition, Timer hold, ConcurrentGauge waiting, ConcurrentGauge held,
+			Counter rejected) {
+	}
+
+	void enter(String endpoint) {
+		ENDPOINT.set(endpoint);
+	}
+
+	void exit() {
+		ENDPOINT.remove();
+	}
+
+	// Returns the endpoint the connection is attributed to, to be passed back with the later events for it
+	String acquisitionStarted() {
+		String endpoint = ENDPOINT.get();
+		if (endpoint == null) {
+			endpoint = OTHER;
+		}
+		endpoint(endpoint).waiting().inc();
+		return endpoint;
+	}
+
+	// Whether or not a connection was obtained; held is reported separately once one was
+	void acquisitionEnded(String endpoint, long waitNanos) {
+		Endpoint usage = endpoint(endpoint);
+		usage.waiting().dec();
+		usage.acquisition().update(Duration.ofNanos(waitNanos));
+	}
+
+	void held(String endpoint) {
+		endpoint(endpoint).held().inc();
+	}
+
+	void released(String endpoint, long holdNanos) {
+		Endpoint usage = endpoint(endpoint);
+		usage.held().dec();
+		usage.hold().update(Duration.ofNanos(holdNanos));
+		averageHoldNanos.getAndUpdate(average -> average == 0 ? holdNanos : average + (holdNanos - average) / HOLD_SMOOTHING);
+	}
+
+	void rejected(String endpoint) {
+		endpoint(endpoint).rejected().inc();
+	}
+
+	/**
+	 * How long a request arriving now would wait for a connection: zero while the pool has a
+	 * connection to spare, otherwise the time for everyone already queued, plus this request, to be
+	 * served by connections returned at the average hold time.
+	 */
+	public Duration expectedWait() {
+		AgroalDataSourceMetrics metrics = dataSource.getMetrics();
+		int maxSize = dataSource.getConfiguration().connectionPoolConfiguration().maxSize();
+		return Duration.ofNanos(estimateWaitNanos(metrics.activeCount(), metrics.availableCount(),
+				metrics.awaitingCount(), maxSize, averageHoldNanos.get()));
+	}
+
+	static long estimateWaitNanos(long active, long available, long awaiting, int maxSize, long averageHoldNanos) {
+		if (available > 0 || active < maxSize) {
+			return 0;
+		}
+		return (awaiting + 1) * averageHoldNanos / Math.max(maxSize, 1);
+	}
+
+	private Endpoint endpoint(String name) {
+		return endpoints.computeIfAbsent(name, method -> {
+			Tag tag = new Tag("method", method);
+			return new Endpoint(metricRegistry.timer("poolAcquisition", tag), metricRegistry.timer("poolHold", tag),
+					metricRegistry.concurrentGauge("poolWaiting", tag), metricRegistry.concurrentGauge("poolHeld", tag),
+					metricRegistry.counter("poolAdmissionRejected", tag));
+		});
+	}
+}
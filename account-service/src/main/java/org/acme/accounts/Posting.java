@@ -0,0 +1,16 @@
+package org.acme.accounts;
+
+import java.math.BigDecimal;
+
+public class Posting {
+	public Long accountNumber;
+	public BigDecimal amount;
+
+	public Posting() {
+	}
+
+	public Posting(Long accountNumber, BigDecimal amount) {
+		this.accountNumber = accountNumber;
+		this.amount = amount;
+	}
+}
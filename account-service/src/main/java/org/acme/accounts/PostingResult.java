@@ -0,0 +1,36 @@
+package org.acme.accounts;
+
+import java.math.BigDecimal;
+
+public class PostingResult {
+	public enum Status {
+		APPLIED,
+		REJECTED
+	}
+
+	public Long accountNumber;
+	public BigDecimal amount;
+	public Status status;
+	public BigDecimal balance;
+	public AccountStatus accountStatus;
+	public String error;
+
+	public static PostingResult applied(Posting posting, Account account) {
+		PostingResult result = new PostingResult();
+		result.accountNumber = posting.accountNumber;
+		result.amount = posting.amount;
+		result.status = Status.APPLIED;
+		result.balance = account.getBalance();
+		result.accountStatus = account.getAccountStatus();
+		return result;
+	}
+
+	public static PostingResult rejected(Posting posting, String error) {
+		PostingResult result = new PostingResult();
+		result.accountNumber = posting.accountNumber;
+		result.amount = posting.amount;
+		result.status = Status.REJECTED;
+		result.error = error;
+		return result;
+	}
+}
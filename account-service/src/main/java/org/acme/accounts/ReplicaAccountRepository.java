@@ -0,0 +1,114 @@
+package org.acme.accounts;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.banking.Money;
+import org.postgresql.PGConnection;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Plain JDBC reads against the read-only {@code replica} datasource. The replica has no persistence
+ * unit of its own, so Account rows are mapped by hand, every column included; the entities returned
+ * are detached copies that are only ever serialized.
+ */
+@ApplicationScoped
+public class ReplicaAccountRepository {
+	// Balances and posting sequences are projected from the ledger as on the primary
+	static final String ACCOUNT_COLUMNS = "select a.id, a.accountNumber, a.customerNumber, a.customerName, "
+			+ Ledger.CURRENT_BALANCE + " balance, a.overdraftLimit, a.accountStatus, " + Ledger.LAST_SEQUENCE
+			+ " postingSequence, a.hotSlots, a.version from account a";
+
+	// Zero once the replica has replayed everything it has received, so an idle primary does not look like lag
+	static final String POSTGRES_LAG = "select case"
+			+ " when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+			+ " else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 end";
+
+	private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+	@Inject
+	@DataSource("replica")
+	AgroalDataSource dataSource;
+
+	public Account findByAccountNumber(Long accountNumber) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement query = connection.prepareStatement(ACCOUNT_COLUMNS + " where a.accountNumber = ?")) {
+			query.setLong(1, accountNumber);
+			try (ResultSet result = query.executeQuery()) {
+				return result.next() ? toAccount(result) : null;
+			}
+		}
+	}
+
+	public Money findBalance(Long accountNumber) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement query = connection.prepareStatement(
+						"select " + Ledger.CURRENT_BALANCE + " from account a where a.accountNumber = ?")) {
+			query.setLong(1, accountNumber);
+			try (ResultSet result = query.executeQuery()) {
+				return result.next() ? Money.ofMinor(result.getLong(1)) : null;
+			}
+		}
+	}
+
+	public List<Account> listAll() throws SQLException {
+		List<Account> accounts = new ArrayList<>();
+		try (Connection connection = dataSource.getConnection();
+				Statement query = connection.createStatement();
+				ResultSet result = query.executeQuery(ACCOUNT_COLUMNS)) {
+			while (result.next()) {
+				accounts.add(toAccount(result));
+			}
+		}
+		return accounts;
+	}
+
+	// How far the replica trails the primary; databases without streaming replication, such as H2 in tests, never lag
+	public Duration lag() throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			if (!connection.isWrapperFor(PGConnection.class)) {
+				return Duration.ZERO;
+			}
+			try (Statement query = connection.createStatement(); ResultSet result = query.executeQuery(POSTGRES_LAG)) {
+				result.next();
+				double millis = result.getDouble(1);
+				// No transaction has been replayed yet, so the lag is unknown
+				return result.wasNull() ? null : Duration.ofMillis((long) millis);
+			}
+		}
+	}
+
+	private static Account toAccount(ResultSet result) throws SQLException {
+		Account account = new Account();
+		account.setId(result.getLong("id"));
+		account.setAccountNumber(result.getLong("accountNumber"));
+		account.setCustomerNumber(result.getLong("customerNumber"));
+		account.setCustomerName(result.getString("customerName"));
+		long balance = result.getLong("balance");
+		if (!result.wasNull()) {
+			account.setBalance(Money.ofMinor(balance).toBigDecimal());
+		}
+		long overdraftLimit = result.getLong("overdraftLimit");
+		if (!result.wasNull()) {
+			account.setOverdraftLimit(Money.ofMinor(overdraftLimit).toBigDecimal());
+		}
+		account.setAccountStatus(STATUSES[result.getInt("accountStatus")]);
+		account.setPostingSequence(result.getLong("postingSequence"));
+		int hotSlots = result.getInt("hotSlots");
+		if (!result.wasNull()) {
+			account.setHotSlots(hotSlots);
+		}
+		account.setVersion(result.getLong("version"));
+		return account;
+	}
+}
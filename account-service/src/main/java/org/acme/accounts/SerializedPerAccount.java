@@ -0,0 +1,27 @@
+package org.acme.accounts;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+/**
+ * Runs the annotated method, including its transaction, while holding the lock
+ * of the account identified by its {@code accountNumber} path parameter.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface SerializedPerAccount {
+
+	/**
+	 * Skips the lock for credits to accounts split into slots by {@link HotAccounts}: the method then
+	 * credits a slot rather than the account row. The amount is taken from the method's last
+	 * parameter; debits, which sweep the slots and post to the row, still take the lock.
+	 */
+	@Nonbinding
+	boolean exceptHot() default false;
+}
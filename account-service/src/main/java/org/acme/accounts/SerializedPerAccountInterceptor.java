@@ -0,0 +1,80 @@
+package org.acme.accounts;
+
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.PathParam;
+
+@SerializedPerAccount
+@Interceptor
+// Before the @Transactional interceptor, so the lock is only released once the transaction has completed
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class SerializedPerAccountInterceptor {
+
+	@Inject
+	AccountLocks accountLocks;
+
+	@Inject
+	HotAccounts hotAccounts;
+
+	@AroundInvoke
+	Object serialize(InvocationContext context) throws Exception {
+		Long accountNumber = accountNumber(context);
+		if (accountNumber == null || exceptHot(context) && credits(context) && hotAccounts.isHot(accountNumber)) {
+			return context.proceed();
+		}
+
+		Semaphore lock = accountLocks.acquire(accountNumber);
+		boolean releaseOnCompletion = false;
+		try {
+			Object result = context.proceed();
+			if (result instanceof CompletionStage<?> stage) {
+				releaseOnCompletion = true;
+				return stage.whenComplete((value, failure) -> lock.release());
+			}
+			return result;
+		} finally {
+			if (!releaseOnCompletion) {
+				lock.release();
+			}
+		}
+	}
+
+	private boolean exceptHot(InvocationContext context) {
+		SerializedPerAccount binding = context.getMethod().getAnnotation(SerializedPerAccount.class);
+		return binding != null && binding.exceptHot();
+	}
+
+	// Only a positive amount, the method's last parameter, goes to a slot; debits post to the account row itself
+	private static boolean credits(InvocationContext context) {
+		Object[] parameters = context.getParameters();
+		Object amount = parameters.length == 0 ? null : parameters[parameters.length - 1];
+		try {
+			if (amount instanceof BigDecimal decimal) {
+				return decimal.signum() > 0;
+			}
+			return amount instanceof String text && new BigDecimal(text.strip()).signum() > 0;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private Long accountNumber(InvocationContext context) {
+		Annotation[][] annotations = context.getMethod().getParameterAnnotations();
+		for (int i = 0; i < annotations.length; i++) {
+			for (Annotation annotation : annotations[i]) {
+				if (annotation instanceof PathParam pathParam && "accountNumber".equals(pathParam.value())) {
+					return (Long) context.getParameters()[i];
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -1,9 +1,11 @@
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (nextval('hibernate_sequence'), 123456789, 0, 550.78, 'Debbie Hall', 12345);
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (nextval('hibernate_sequence'), 111222333, 0, 2389.32, 'David Tennant', 112211);
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (nextval('hibernate_sequence'), 444666, 0, 3499.12, 'Billie Piper', 332233);
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (nextval('hibernate_sequence'), 87878787, 0, 890.54, 'Matt Smith', 444434);
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (nextval('hibernate_sequence'), 990880221, 0, 1298.34, 'Alex Kingston', 778877);
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (nextval('hibernate_sequence'), 987654321, 0, 781.82, 'Tom Baker', 908990);
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (nextval('hibernate_sequence'), 5465, 0, 239.33, 'Alex Trebek', 776868);
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (nextval('hibernate_sequence'), 78790, 0, 439.01, 'Vanna White', 444222);
-INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber) VALUES (9, 999999999, 0, 999999999.01, 'Readiness HealthCheck', 99999999999);
\ No newline at end of file
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (nextval('hibernate_sequence'), 123456789, 0, 55078, 'Debbie Hall', 12345, 0, 0);
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (nextval('hibernate_sequence'), 111222333, 0, 238932, 'David Tennant', 112211, 0, 0);
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (nextval('hibernate_sequence'), 444666, 0, 349912, 'Billie Piper', 332233, 0, 0);
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (nextval('hibernate_sequence'), 87878787, 0, 89054, 'Matt Smith', 444434, 0, 0);
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (nextval('hibernate_sequence'), 990880221, 0, 129834, 'Alex Kingston', 778877, 0, 0);
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (nextval('hibernate_sequence'), 987654321, 0, 78182, 'Tom Baker', 908990, 0, 0);
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (nextval('hibernate_sequence'), 5465, 0, 23933, 'Alex Trebek', 776868, 0, 0);
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (nextval('hibernate_sequence'), 78790, 0, 43901, 'Vanna White', 444222, 0, 0);
+INSERT INTO account(id, accountNumber, accountStatus, balance, customerName, customerNumber, postingSequence, version) VALUES (9, 999999999, 0, 99999999901, 'Readiness HealthCheck', 99999999999, 0, 0);
+INSERT INTO BalanceSnapshot(accountNumber, sequence, balance, takenAt) SELECT accountNumber, 0, balance, CURRENT_TIMESTAMP FROM account;
+INSERT INTO CustomerSummary(customerNumber, accountCount, totalBalance, overdrawnAccounts, overdraftExposure) SELECT customerNumber, COUNT(*), SUM(balance), 0, 0 FROM account GROUP BY customerNumber;
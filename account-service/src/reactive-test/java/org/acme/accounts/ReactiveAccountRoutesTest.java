@@ -0,0 +1,180 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.acme.banking.Money;
+import org.acme.banking.events.Overdrawn;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.config.JsonPathConfig;
+import io.restassured.response.ValidatableResponse;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+
+/**
+ * Runs the reactive routes and the blocking endpoints in one application against PostgreSQL at
+ * {@code localhost/quarkus_banking}, so the reactive client and the ORM persistence unit share the
+ * default datasource. Only compiled and run with the {@code reactive} Maven profile.
+ */
+@QuarkusTest
+@TestProfile(ReactiveAccountRoutesTest.Postgres.class)
+@QuarkusTestResource(InMemoryLifecycleManager.class)
+public class ReactiveAccountRoutesTest {
+  private static final JsonPathConfig BIG_DECIMALS = new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL);
+  private static final long ACCOUNT = 7000001201L;
+  private static final long OVERDRAWN_ACCOUNT = 7000001202L;
+  private static final long HOT_ACCOUNT = 7000001203L;
+
+  @Inject
+  @Any
+  InMemoryConnector connector;
+
+  @Inject
+  OutboxRelay outboxRelay;
+
+  public static class Postgres implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of(
+          "quarkus.datasource.db-kind", "postgresql",
+          "quarkus.datasource.username", "quarkus_banking",
+          "quarkus.datasource.password", "quarkus_banking",
+          "quarkus.datasource.jdbc.url", "jdbc:postgresql://localhost/quarkus_banking",
+          "quarkus.datasource.reactive.url", "postgresql://localhost/quarkus_banking",
+          "quarkus.datasource.replica.db-kind", "postgresql",
+          "quarkus.datasource.replica.username", "quarkus_banking",
+          "quarkus.datasource.replica.password", "quarkus_banking",
+          "quarkus.datasource.replica.jdbc.url", "jdbc:postgresql://localhost/quarkus_banking");
+    }
+  }
+
+  @Test
+  void testReactiveAndBlockingPostingsShareTheLedger() {
+    TestAccounts.open(ACCOUNT, 7100001201L, "100.00");
+
+    // Loads the account into the second-level cache, then the reactive postings fold its row at sequence 3
+    deposit("/accounts/{accountNumber}/deposit", "5.00");
+    deposit("/reactive/accounts/{accountNumber}/deposit", "10.00");
+    JsonPath account = deposit("/reactive/accounts/{accountNumber}/deposit", "10.00");
+    assertThat(account.getLong("postingSequence"), equalTo(3L));
+    assertThat(account.getObject("balance", BigDecimal.class), equalTo(new BigDecimal("125.00")));
+
+    // The blocking fold at sequence 6 would fail on the row version had the cache kept the old row
+    deposit("/accounts/{accountNumber}/deposit", "5.00");
+    deposit("/accounts/{accountNumber}/deposit", "5.00");
+    account = deposit("/accounts/{accountNumber}/deposit", "5.00");
+    assertThat(account.getLong("postingSequence"), equalTo(6L));
+    assertThat(account.getObject("balance", BigDecimal.class), equalTo(new BigDecimal("140.00")));
+
+    account = given()
+        .when().get("/reactive/accounts/{accountNumber}", ACCOUNT)
+        .then()
+        .statusCode(200)
+        .extract().jsonPath().using(BIG_DECIMALS);
+    assertThat(account.getLong("postingSequence"), equalTo(6L));
+    assertThat(account.getObject("balance", BigDecimal.class), equalTo(new BigDecimal("140.00")));
+    assertThat(given().when().get("/accounts/{accountNumber}/ledger", ACCOUNT).then().statusCode(200).extract()
+        .jsonPath().getList("$").size(), equalTo(6));
+  }
+
+  @Test
+  void testReactiveWithdrawalQueuesOverdrawnEvent() {
+    TestAccounts.open(OVERDRAWN_ACCOUNT, 7100001202L, "10.00", "-50.00");
+    InMemorySink<Overdrawn> overdrawnSink = connector.sink("account-overdrawn");
+    outboxRelay.publishPending();
+    overdrawnSink.clear();
+
+    JsonPath account = withdraw("30.00").statusCode(200).extract().jsonPath().using(BIG_DECIMALS);
+    assertThat(account.getString("accountStatus"), equalTo("OVERDRAWN"));
+    assertThat(account.getObject("balance", BigDecimal.class), equalTo(new BigDecimal("-20.00")));
+    withdraw("40.00").statusCode(200);
+    withdraw("1.00").statusCode(409);
+
+    given()
+        .when().get("/accounts/{accountNumber}", OVERDRAWN_ACCOUNT)
+        .then()
+        .statusCode(200)
+        .body("accountStatus", equalTo("OVERDRAWN"));
+
+    JsonPath summary = given()
+        .when().get("/accounts/customers/{customerNumber}/summary", 7100001202L)
+        .then()
+        .statusCode(200)
+        .extract().jsonPath().using(BIG_DECIMALS);
+    assertThat(summary.getObject("totalBalance", BigDecimal.class), equalTo(new BigDecimal("-60.00")));
+    assertThat(summary.getLong("overdrawnAccounts"), equalTo(1L));
+
+    outboxRelay.publishPending();
+    assertThat(overdrawnSink.received().size(), equalTo(2));
+    assertThat(overdrawnSink.received().get(1).getPayload().balance, equalTo(Money.parse("-60.00")));
+  }
+
+  @Test
+  void testReactivePostingsLeftToTheBlockingEndpoints() {
+    TestAccounts.open(HOT_ACCOUNT, 7100001203L, "100.00");
+    given()
+        .contentType(ContentType.JSON)
+        .body("2")
+        .when().put("/accounts/{accountNumber}/slots", HOT_ACCOUNT)
+        .then()
+        .statusCode(200);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("1.00")
+        .when().put("/reactive/accounts/{accountNumber}/deposit", HOT_ACCOUNT)
+        .then()
+        .statusCode(409);
+    given()
+        .contentType(ContentType.JSON)
+        .header(IdempotentInterceptor.IDEMPOTENCY_KEY, "reactive-1")
+        .body("1.00")
+        .when().put("/reactive/accounts/{accountNumber}/deposit", ACCOUNT)
+        .then()
+        .statusCode(400);
+    given()
+        .contentType(ContentType.JSON)
+        .body("1.001")
+        .when().put("/reactive/accounts/{accountNumber}/deposit", ACCOUNT)
+        .then()
+        .statusCode(400);
+    given()
+        .contentType(ContentType.JSON)
+        .body("1.00")
+        .when().put("/reactive/accounts/{accountNumber}/deposit", 7000001299L)
+        .then()
+        .statusCode(404)
+        .body("error", equalTo("Account with 7000001299 does not exist."));
+  }
+
+  private JsonPath deposit(String path, String amount) {
+    return given()
+        .contentType(ContentType.JSON)
+        .body(amount)
+        .when().put(path, ACCOUNT)
+        .then()
+        .statusCode(200)
+        .extract().jsonPath().using(BIG_DECIMALS);
+  }
+
+  private ValidatableResponse withdraw(String amount) {
+    return given()
+        .contentType(ContentType.JSON)
+        .body(amount)
+        .when().put("/reactive/accounts/{accountNumber}/withdrawal", OVERDRAWN_ACCOUNT)
+        .then();
+  }
+}
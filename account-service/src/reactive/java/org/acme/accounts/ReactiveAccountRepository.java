@@ -0,0 +1,195 @@
+package org.acme.accounts;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.acme.banking.Money;
+import org.acme.banking.events.Overdrawn;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Reads and postings for the {@code /reactive/accounts} routes on the reactive PostgreSQL client,
+ * which unlike Hibernate Reactive runs alongside the ORM persistence unit. Rows are mapped by hand
+ * as in {@link ReplicaAccountRepository}; a posting writes the same ledger entries, snapshots,
+ * customer summary deltas and outbox events as the blocking endpoints, with {@link Ledger} and
+ * {@link Outbox} building them. Only compiled with the {@code reactive} Maven profile.
+ */
+@ApplicationScoped
+public class ReactiveAccountRepository {
+	// Unswept hot-account deposits included, as the blocking reads add them
+	static final String UNSWEPT = "coalesce((select sum(s.balance) from AccountSlot s"
+			+ " where s.accountNumber = a.accountNumber), 0)";
+
+	static final String FIND_ACCOUNT = "select a.id, a.accountNumber, a.customerNumber, a.customerName, "
+			+ Ledger.CURRENT_BALANCE + " + " + UNSWEPT + " balance, a.overdraftLimit, a.accountStatus, "
+			+ Ledger.LAST_SEQUENCE + " postingSequence, a.hotSlots, a.version from account a where a.accountNumber = $1";
+
+	static final String FIND_BALANCE = "select " + Ledger.CURRENT_BALANCE + " + " + UNSWEPT
+			+ " from account a where a.accountNumber = $1";
+
+	// Blocking postings serialize on AccountLocks instead; a posting that races one of them for the
+	// next sequence number fails on the ledger's primary key, as between instances
+	static final String LOCK_ACCOUNT = ReplicaAccountRepository.ACCOUNT_COLUMNS
+			+ " where a.accountNumber = $1 for update of a";
+
+	static final String INSERT_ENTRY = "insert into LedgerEntry (accountNumber, sequence, amount, postedAt)"
+			+ " values ($1, $2, $3, $4)";
+
+	static final String INSERT_SNAPSHOT = "insert into BalanceSnapshot (accountNumber, sequence, balance, takenAt)"
+			+ " values ($1, $2, $3, $4)";
+
+	// The row only changes when a snapshot folds it forward or the account becomes overdrawn; unfolded, it
+	// keeps its balance and posting sequence as of the last snapshot
+	static final String FOLD_ACCOUNT = "update account set balance = $1, postingSequence = $2, accountStatus = $3,"
+			+ " version = version + 1 where id = $4";
+
+	static final String UPDATE_STATUS = "update account set accountStatus = $1, version = version + 1 where id = $2";
+
+	// Each nextval is the top of an id block Hibernate's pooled optimizer never hands out itself
+	static final String INSERT_OUTBOX_EVENT = "insert into OutboxEvent"
+			+ " (id, accountNumber, eventType, payload, traceHeaders, createdAt)"
+			+ " values (nextval('OutboxEvent_SEQ'), $1, $2, $3, $4, $5)";
+
+	static final String UPSERT_SUMMARY = numbered(CustomerSummaryRepository.POSTGRES_UPSERT);
+
+	private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+	@Inject
+	PgPool client;
+
+	@Inject
+	Ledger ledger;
+
+	@Inject
+	Outbox outbox;
+
+	@Inject
+	EntityManagerFactory entityManagerFactory;
+
+	public Uni<Account> findByAccountNumber(Long accountNumber) {
+		return client.preparedQuery(FIND_ACCOUNT).execute(Tuple.of(accountNumber))
+				.map(rows -> rows.size() == 0 ? null : toAccount(rows.iterator().next()));
+	}
+
+	public Uni<Money> findBalance(Long accountNumber) {
+		return client.preparedQuery(FIND_BALANCE).execute(Tuple.of(accountNumber))
+				.map(rows -> rows.size() == 0 ? null : Money.ofMinor(rows.iterator().next().getLong(0)));
+	}
+
+	/**
+	 * Locks the account row for the rest of the connection's transaction. The account returned is
+	 * projected onto its ledger, so its balance and posting sequence are current.
+	 */
+	public Uni<Account> lock(SqlConnection connection, Long accountNumber) {
+		return connection.preparedQuery(LOCK_ACCOUNT).execute(Tuple.of(accountNumber))
+				.map(rows -> rows.size() == 0 ? null : toAccount(rows.iterator().next()));
+	}
+
+	/**
+	 * Posts the amount to an account locked by {@link #lock} and, for a withdrawal that leaves it
+	 * negative, marks it overdrawn and queues the {@link Overdrawn} event, all in the connection's
+	 * transaction. The account is updated to match.
+	 */
+	public Uni<Account> post(SqlConnection connection, Account account, Money amount) {
+		CustomerSummary.Contribution before = CustomerSummary.Contribution.of(account);
+		AccountStatus statusBefore = account.getAccountStatus();
+
+		LedgerEntry entry = ledger.append(account, amount);
+		BalanceSnapshot snapshot = ledger.snapshotIfDue(account, entry);
+		if (snapshot != null) {
+			account.fold();
+		}
+		boolean overdrawn = amount.signum() < 0 && account.balance().isNegative();
+		if (overdrawn) {
+			account.markOverdrawn();
+		}
+		short status = (short) account.getAccountStatus().ordinal();
+
+		Uni<?> writes = connection.preparedQuery(INSERT_ENTRY).execute(Tuple.of(entry.getAccountNumber(),
+				entry.getSequence(), entry.amount().minorUnits(), timestamp(entry.getPostedAt())));
+		if (snapshot != null) {
+			writes = writes
+					.chain(() -> connection.preparedQuery(INSERT_SNAPSHOT)
+							.execute(Tuple.of(snapshot.getAccountNumber(), snapshot.getSequence(),
+									snapshot.getBalance().minorUnits(), timestamp(snapshot.getTakenAt()))))
+					.chain(() -> connection.preparedQuery(FOLD_ACCOUNT).execute(Tuple.of(account.balance().minorUnits(),
+							account.getPostingSequence(), status, account.getId())));
+		} else if (account.getAccountStatus() != statusBefore) {
+			writes = writes.chain(() -> connection.preparedQuery(UPDATE_STATUS).execute(Tuple.of(status, account.getId())));
+		}
+		if (snapshot != null || account.getAccountStatus() != statusBefore) {
+			// The row lock keeps this the only change since the account was read
+			account.setVersion(account.version() + 1);
+		}
+		if (overdrawn) {
+			OutboxEvent event = outbox.event(new Overdrawn(account.getAccountNumber(), account.getCustomerNumber(),
+					account.balance(), account.overdraftLimit()));
+			writes = writes.chain(() -> connection.preparedQuery(INSERT_OUTBOX_EVENT)
+					.execute(Tuple.of(event.getAccountNumber(), event.getEventType(), event.getPayload(),
+							event.getTraceHeaders(), timestamp(event.getCreatedAt()))));
+		}
+		CustomerSummary.Contribution delta = CustomerSummary.Contribution.of(account).minus(before);
+		if (!delta.isEmpty()) {
+			writes = writes.chain(() -> connection.preparedQuery(UPSERT_SUMMARY)
+					.execute(Tuple.of(delta.accounts(), delta.balance(), delta.overdrawn(), delta.exposure(),
+							account.getCustomerNumber())));
+		}
+		return writes.replaceWith(account);
+	}
+
+	/**
+	 * Drops the account's entry from the ORM second-level cache once a {@link #post} has committed,
+	 * so the blocking endpoints do not go on serving a row it folded or marked overdrawn.
+	 */
+	public void evict(Account account) {
+		entityManagerFactory.getCache().evict(Account.class, account.getId());
+	}
+
+	private static Account toAccount(Row row) {
+		Account account = new Account();
+		account.setId(row.getLong("id"));
+		account.setAccountNumber(row.getLong("accountnumber"));
+		account.setCustomerNumber(row.getLong("customernumber"));
+		account.setCustomerName(row.getString("customername"));
+		Long balance = row.getLong("balance");
+		if (balance != null) {
+			account.setBalance(Money.ofMinor(balance).toBigDecimal());
+		}
+		Long overdraftLimit = row.getLong("overdraftlimit");
+		if (overdraftLimit != null) {
+			account.setOverdraftLimit(Money.ofMinor(overdraftLimit).toBigDecimal());
+		}
+		account.setAccountStatus(STATUSES[row.getInteger("accountstatus")]);
+		account.setPostingSequence(row.getLong("postingsequence"));
+		account.setHotSlots(row.getInteger("hotslots"));
+		account.setVersion(row.getLong("version"));
+		return account;
+	}
+
+	private static OffsetDateTime timestamp(Instant instant) {
+		return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+	}
+
+	// The reactive client takes $1, $2, ... where the shared JDBC statements use ?
+	static String numbered(String sql) {
+		StringBuilder numbered = new StringBuilder(sql.length());
+		int parameter = 0;
+		for (char c : sql.toCharArray()) {
+			if (c == '?') {
+				numbered.append('$').append(++parameter);
+			} else {
+				numbered.append(c);
+			}
+		}
+		return numbered.toString();
+	}
+}
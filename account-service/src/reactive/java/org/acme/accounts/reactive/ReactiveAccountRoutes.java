@@ -0,0 +1,133 @@
+package org.acme.accounts.reactive;
+
+import java.math.BigDecimal;
+
+import org.acme.accounts.Account;
+import org.acme.accounts.AccountChanged;
+import org.acme.accounts.AccountStatus;
+import org.acme.accounts.IdempotentInterceptor;
+import org.acme.accounts.ReactiveAccountRepository;
+import org.acme.banking.InvalidAmountException;
+import org.acme.banking.Money;
+
+import io.quarkus.vertx.web.Body;
+import io.quarkus.vertx.web.Header;
+import io.quarkus.vertx.web.Param;
+import io.quarkus.vertx.web.Route;
+import io.quarkus.vertx.web.Route.HandlerType;
+import io.quarkus.vertx.web.Route.HttpMethod;
+import io.quarkus.vertx.web.RouteBase;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.handler.HttpException;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.pgclient.PgException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+/**
+ * Event-loop variant of the AccountResource account and balance reads, deposits and withdrawals,
+ * built on the reactive PostgreSQL client. Only compiled with the {@code reactive} Maven profile.
+ * <p>
+ * A posting locks the account row, then writes its ledger entry, any snapshot, overdrawn status and
+ * outbox event and the customer summary delta in one transaction, as the blocking endpoints do. The
+ * {@code AccountChanged} observers run on a worker thread once it has committed. Two things stay on
+ * {@code /accounts}: hot accounts, whose deposits go to slots swept under AccountLocks, and requests
+ * with an {@code Idempotency-Key}, whose records are kept in the JTA transaction of the posting.
+ */
+@ApplicationScoped
+@RouteBase(path = "/reactive/accounts", produces = "application/json")
+public class ReactiveAccountRoutes {
+	// SQLSTATE unique_violation, here another posting having taken the ledger sequence number first
+	private static final String UNIQUE_VIOLATION = "23505";
+
+	@Inject
+	ReactiveAccountRepository accountRepository;
+
+	@Inject
+	PgPool client;
+
+	@Inject
+	Event<AccountChanged> accountChanged;
+
+	@Route(path = ":accountNumber", methods = HttpMethod.GET)
+	Uni<Account> getAccount(@Param String accountNumber) {
+		Long number = Long.valueOf(accountNumber);
+		return accountRepository.findByAccountNumber(number)
+				.onItem().ifNull().failWith(() -> notFound(number));
+	}
+
+	@Route(path = ":accountNumber/balance", methods = HttpMethod.GET)
+	Uni<BigDecimal> getBalance(@Param String accountNumber) {
+		Long number = Long.valueOf(accountNumber);
+		return accountRepository.findBalance(number)
+				.onItem().ifNull().failWith(() -> notFound(number))
+				.map(Money::toBigDecimal);
+	}
+
+	@Route(path = ":accountNumber/deposit", methods = HttpMethod.PUT, consumes = "application/json")
+	Uni<Account> deposit(@Param String accountNumber, @Body String amount,
+			@Header(IdempotentInterceptor.IDEMPOTENCY_KEY) String idempotencyKey) {
+		return post(Long.valueOf(accountNumber), amount, idempotencyKey, false);
+	}
+
+	@Route(path = ":accountNumber/withdrawal", methods = HttpMethod.PUT, consumes = "application/json")
+	Uni<Account> withdrawal(@Param String accountNumber, @Body String amount,
+			@Header(IdempotentInterceptor.IDEMPOTENCY_KEY) String idempotencyKey) {
+		return post(Long.valueOf(accountNumber), amount, idempotencyKey, true);
+	}
+
+	@Route(path = "*", type = HandlerType.FAILURE, produces = "application/json")
+	void httpFailure(HttpException failure, HttpServerResponse response) {
+		response.setStatusCode(failure.getStatusCode())
+				.end(new JsonObject().put("exceptionType", failure.getClass().getName())
+						.put("code", failure.getStatusCode()).put("error", failure.getPayload()).encode());
+	}
+
+	private Uni<Account> post(Long accountNumber, String amount, String idempotencyKey, boolean withdrawal) {
+		if (idempotencyKey != null) {
+			return Uni.createFrom().failure(new HttpException(400,
+					"Idempotency keys are only honoured on /accounts/" + accountNumber));
+		}
+		Money posting;
+		try {
+			posting = amount == null ? null : Money.parse(amount);
+		} catch (InvalidAmountException e) {
+			return Uni.createFrom().failure(new HttpException(400, e.getMessage()));
+		}
+		if (posting == null) {
+			return Uni.createFrom().failure(new HttpException(400, "Amount is required"));
+		}
+
+		return client.withTransaction(connection -> accountRepository.lock(connection, accountNumber)
+				.onItem().ifNull().failWith(() -> notFound(accountNumber))
+				.chain(account -> {
+					if (account.getHotSlots() != null) {
+						throw new HttpException(409, "Account " + accountNumber + " is hot, post to /accounts/"
+								+ accountNumber + " instead");
+					}
+					if (withdrawal && account.getAccountStatus() == AccountStatus.OVERDRAWN
+							&& (account.overdraftLimit() == null
+									|| account.balance().compareTo(account.overdraftLimit()) <= 0)) {
+						throw new HttpException(409, "Account is overdrawn, no further withdrawals permitted");
+					}
+					return accountRepository.post(connection, account, withdrawal ? posting.negate() : posting);
+				}))
+				.onFailure(PgException.class).transform(e -> UNIQUE_VIOLATION.equals(((PgException) e).getSqlState())
+						? new HttpException(409, "Account " + accountNumber + " was posted to concurrently, retry")
+						: e)
+				// The observers block, BalanceCache on its cache invalidation
+				.emitOn(Infrastructure.getDefaultWorkerPool())
+				.invoke(account -> {
+					accountRepository.evict(account);
+					accountChanged.fire(new AccountChanged(account));
+				});
+	}
+
+	private HttpException notFound(Long accountNumber) {
+		return new HttpException(404, "Account with " + accountNumber + " does not exist.");
+	}
+}
@@ -0,0 +1,175 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class AccountBatchTest {
+  private static final long ACCOUNT = 7000000702L;
+  private static final long OVERDRAWN_ACCOUNT = 7000000703L;
+
+  @BeforeEach
+  void openAccounts() {
+    TestAccounts.open(ACCOUNT, 7100000702L, "890.54");
+    TestAccounts.open(OVERDRAWN_ACCOUNT, 7100000703L, "781.82");
+  }
+
+  @Test
+  void testBatchTransactions() {
+    List<Posting> postings = List.of(
+        new Posting(ACCOUNT, new BigDecimal("100.00")),
+        new Posting(OVERDRAWN_ACCOUNT, new BigDecimal("-81.82")),
+        new Posting(11L, new BigDecimal("10.00")),
+        new Posting(ACCOUNT, new BigDecimal("-0.54")));
+
+    List<PostingResult> results =
+        given()
+            .contentType(ContentType.JSON)
+            .body(postings)
+            .when().post("/accounts/transactions/batch")
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath().getList("$", PostingResult.class);
+
+    assertThat(results, hasSize(4));
+    assertThat(results.get(0).status, equalTo(PostingResult.Status.APPLIED));
+    assertThat(results.get(1).status, equalTo(PostingResult.Status.APPLIED));
+    assertThat(results.get(2).status, equalTo(PostingResult.Status.REJECTED));
+    assertThat(results.get(3).status, equalTo(PostingResult.Status.APPLIED));
+
+    BigDecimal balance =
+        given()
+            .when().get("/accounts/{accountNumber}/balance", ACCOUNT)
+            .then()
+            .statusCode(200)
+            .extract()
+            .as(BigDecimal.class);
+
+    assertThat(balance, equalTo(new BigDecimal("990.00")));
+
+    balance =
+        given()
+            .when().get("/accounts/{accountNumber}/balance", OVERDRAWN_ACCOUNT)
+            .then()
+            .statusCode(200)
+            .extract()
+            .as(BigDecimal.class);
+
+    assertThat(balance, equalTo(new BigDecimal("700.00")));
+
+    // Once a posting overdraws the account, later ones are refused just as transact would refuse them
+    results =
+        given()
+            .contentType(ContentType.JSON)
+            .body(List.of(
+                new Posting(OVERDRAWN_ACCOUNT, new BigDecimal("-800.00")),
+                new Posting(OVERDRAWN_ACCOUNT, new BigDecimal("50.00"))))
+            .when().post("/accounts/transactions/batch")
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath().getList("$", PostingResult.class);
+
+    assertThat(results.get(0).status, equalTo(PostingResult.Status.APPLIED));
+    assertThat(results.get(1).status, equalTo(PostingResult.Status.REJECTED));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("50.00")
+        .when().post("/accounts/{accountNumber}/transaction", OVERDRAWN_ACCOUNT)
+        .then()
+        .statusCode(409);
+  }
+
+  @Test
+  void testLargeBatchIsAppliedInSlices() {
+    given()
+        .contentType("text/csv")
+        .body("accountNumber,customerName,customerNumber,balance\n7000000701,Donna Noble,7100000701,0.00")
+        .when().post("/accounts/import")
+        .then()
+        .statusCode(200)
+        .body("imported", equalTo(1));
+
+    // Spans three slices of the default slice size of 100
+    List<Posting> postings = IntStream.range(0, 250)
+        .mapToObj(i -> new Posting(7000000701L, new BigDecimal("1.00")))
+        .toList();
+
+    List<PostingResult> results =
+        given()
+            .contentType(ContentType.JSON)
+            .body(postings)
+            .when().post("/accounts/transactions/batch")
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath().getList("$", PostingResult.class);
+
+    assertThat(results, hasSize(250));
+    assertThat(results.stream().allMatch(r -> r.status == PostingResult.Status.APPLIED), equalTo(true));
+    assertThat(
+        given()
+            .when().get("/accounts/{accountNumber}/balance", 7000000701L)
+            .then()
+            .statusCode(200)
+            .extract()
+            .as(BigDecimal.class),
+        equalTo(new BigDecimal("250.00")));
+  }
+
+  @Test
+  void testAmountWithTooManyDecimals() {
+    given()
+        .contentType(ContentType.JSON)
+        .body("10.005")
+        .when().post("/accounts/{accountNumber}/transaction", ACCOUNT)
+        .then()
+        .statusCode(400);
+
+    // Only the invalid postings are rejected, the rest of the batch is applied
+    List<PostingResult> results =
+        given()
+            .contentType(ContentType.JSON)
+            .body(List.of(
+                new Posting(ACCOUNT, new BigDecimal("10.005")),
+                new Posting(null, new BigDecimal("1.00")),
+                new Posting(ACCOUNT, new BigDecimal("0.00"))))
+            .when().post("/accounts/transactions/batch")
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath().getList("$", PostingResult.class);
+
+    assertThat(results.get(0).status, equalTo(PostingResult.Status.REJECTED));
+    assertThat(results.get(1).status, equalTo(PostingResult.Status.REJECTED));
+    assertThat(results.get(1).error, equalTo("Posting accountNumber is required"));
+    assertThat(results.get(2).status, equalTo(PostingResult.Status.APPLIED));
+  }
+
+  @Test
+  void testEmptyBatch() {
+    given()
+        .contentType(ContentType.JSON)
+        .body("[]")
+        .when().post("/accounts/transactions/batch")
+        .then()
+        .statusCode(400);
+  }
+}
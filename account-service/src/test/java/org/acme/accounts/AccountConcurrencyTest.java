@@ -0,0 +1,75 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class AccountConcurrencyTest {
+  private static final long ACCOUNT = 7000000801L;
+
+  @BeforeEach
+  void openAccount() {
+    TestAccounts.open(ACCOUNT, 7100000801L, "500.00");
+  }
+
+  @Test
+  void testConcurrentDepositsAndWithdrawals() throws Exception {
+    BigDecimal balance =
+        given()
+            .when().get("/accounts/{accountNumber}/balance", ACCOUNT)
+            .then()
+            .statusCode(200)
+            .extract()
+            .as(BigDecimal.class);
+
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    List<Future<?>> results = new ArrayList<>();
+    try {
+      for (int i = 0; i < 100; i++) {
+        String path = i % 2 == 0 ? "/accounts/{accountNumber}/deposit" : "/accounts/{accountNumber}/withdrawal";
+        String amount = i % 2 == 0 ? "2.50" : "1.25";
+        results.add(executor.submit(() ->
+            given()
+                .contentType(ContentType.JSON)
+                .body(amount)
+                .when().put(path, ACCOUNT)
+                .then()
+                .statusCode(200)));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    BigDecimal expectedBalance = balance.add(new BigDecimal("125.00")).subtract(new BigDecimal("62.50"));
+
+    balance =
+        given()
+            .when().get("/accounts/{accountNumber}/balance", ACCOUNT)
+            .then()
+            .statusCode(200)
+            .extract()
+            .as(BigDecimal.class);
+
+    assertThat(balance, equalTo(expectedBalance));
+  }
+}
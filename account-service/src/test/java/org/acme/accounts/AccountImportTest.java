@@ -0,0 +1,132 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.config.JsonPathConfig;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class AccountImportTest {
+  private static final JsonPathConfig BIG_DECIMALS = new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL);
+
+  @Test
+  void testCsvImport() {
+    // The test chunk size is 2: line 7 repeats an account number from import.sql and line 8 one from
+    // line 2; each is skipped on its own, while line 6 in the same chunk as line 7 is imported
+    String csv = String.join("\n",
+        "accountNumber,customerName,customerNumber,balance,overdraftLimit",
+        "7000000001,Rose Tyler,7100000001,100.00,-50.00",
+        "7000000002,\"Tyler, Jackie\",7100000001,-20.50,",
+        "not-a-number,Mickey Smith,7100000002,1.00,",
+        "7000000003,Mickey Smith,7100000002,1.005,",
+        "7000000004,Mickey Smith,7100000002,5.00,",
+        "123456789,Duplicate,7100000002,1.00,",
+        "7000000001,Rose Tyler,7100000001,1.00,");
+
+    JsonPath report =
+        given()
+            .contentType("text/csv")
+            .body(csv)
+            .when().post("/accounts/import")
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath();
+
+    assertThat(report.getLong("imported"), equalTo(3L));
+    assertThat(report.getLong("rejected"), equalTo(4L));
+    assertThat(report.getList("rejects"), hasSize(4));
+    assertThat(report.getLong("rejects[0].line"), equalTo(4L));
+    assertThat(report.getLong("rejects[1].line"), equalTo(5L));
+    assertThat(report.getLong("rejects[2].line"), equalTo(7L));
+    assertThat(report.getLong("rejects[3].line"), equalTo(8L));
+
+    JsonPath account = account(7000000001L);
+    assertThat(account.getObject("balance", BigDecimal.class), equalTo(new BigDecimal("100.00")));
+    assertThat(account.getObject("overdraftLimit", BigDecimal.class), equalTo(new BigDecimal("-50.00")));
+    assertThat(account.getString("accountStatus"), equalTo("OPEN"));
+
+    account = account(7000000002L);
+    assertThat(account.getString("customerName"), equalTo("Tyler, Jackie"));
+    assertThat(account.getString("accountStatus"), equalTo("OVERDRAWN"));
+    assertThat(account.getLong("postingSequence"), equalTo(0L));
+
+    BigDecimal opening =
+        given()
+            .queryParam("sequence", 0)
+            .when().get("/accounts/{accountNumber}/ledger/balance", 7000000002L)
+            .then()
+            .statusCode(200)
+            .extract()
+            .as(BigDecimal.class);
+    assertThat(opening, equalTo(new BigDecimal("-20.50")));
+
+    JsonPath summary =
+        given()
+            .when().get("/accounts/customers/{customerNumber}/summary", 7100000001L)
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath().using(BIG_DECIMALS);
+    assertThat(summary.getLong("accountCount"), equalTo(2L));
+    assertThat(summary.getObject("totalBalance", BigDecimal.class), equalTo(new BigDecimal("79.50")));
+    assertThat(summary.getLong("overdrawnAccounts"), equalTo(1L));
+    assertThat(summary.getObject("overdraftExposure", BigDecimal.class), equalTo(new BigDecimal("20.50")));
+
+    assertThat(account(7000000004L).getObject("balance", BigDecimal.class), equalTo(new BigDecimal("5.00")));
+    assertThat(account(123456789L).getString("customerName"), equalTo("Debbie Hall"));
+  }
+
+  @Test
+  void testNdjsonImport() {
+    String ndjson = String.join("\n",
+        "{\"accountNumber\":7000000101,\"customerNumber\":7100000101,\"customerName\":\"Clara Oswald\",\"balance\":12.34}",
+        "{\"accountNumber\":7000000102,\"customerNumber\":7100000101,",
+        "{\"accountNumber\":7000000103,\"customerNumber\":7100000101,\"customerName\":\"Clara Oswald\",\"balance\":\"0.66\"}",
+        "");
+
+    given()
+        .contentType(AccountResource.NDJSON)
+        .body(ndjson.getBytes(StandardCharsets.UTF_8))
+        .when().post("/accounts/import")
+        .then()
+        .statusCode(200)
+        .body("imported", equalTo(2))
+        .body("rejected", equalTo(1))
+        .body("rejects[0].line", equalTo(2));
+
+    assertThat(account(7000000101L).getObject("balance", BigDecimal.class), equalTo(new BigDecimal("12.34")));
+    assertThat(account(7000000103L).getObject("balance", BigDecimal.class), equalTo(new BigDecimal("0.66")));
+  }
+
+  @Test
+  void testCsvImportRequiresHeader() {
+    given()
+        .contentType("text/csv")
+        .body("accountNumber,customerNumber\n7000000104,7100000104\n")
+        .when().post("/accounts/import")
+        .then()
+        .statusCode(400);
+  }
+
+  private JsonPath account(Long accountNumber) {
+    return given()
+        .when().get("/accounts/{accountNumber}", accountNumber)
+        .then()
+        .statusCode(200)
+        .extract()
+        .jsonPath().using(BIG_DECIMALS);
+  }
+}
@@ -0,0 +1,171 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.config.JsonPathConfig;
+import jakarta.inject.Inject;
+import jakarta.json.bind.Jsonb;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class AccountLedgerTest {
+  private static final JsonPathConfig BIG_DECIMALS = new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL);
+  private static final long ACCOUNT = 7000000502L;
+
+  @Inject
+  Jsonb jsonb;
+
+  @Inject
+  AgroalDataSource dataSource;
+
+  @BeforeEach
+  void openAccount() {
+    TestAccounts.open(ACCOUNT, 7100000502L, "1298.34");
+  }
+
+  @Test
+  void testLedgerReplaysHistoricalBalances() {
+    JsonPath account = given().when().get("/accounts/{accountNumber}", ACCOUNT).then().statusCode(200).extract()
+        .jsonPath().using(BIG_DECIMALS);
+    long start = account.getLong("postingSequence");
+    BigDecimal opening = account.getObject("balance", BigDecimal.class);
+
+    // With the test snapshot interval of 3, four postings always cross at least one snapshot
+    given().contentType(ContentType.JSON).body("10.00").when()
+        .put("/accounts/{accountNumber}/deposit", ACCOUNT).then().statusCode(200);
+    given().contentType(ContentType.JSON).body("2.50").when()
+        .put("/accounts/{accountNumber}/withdrawal", ACCOUNT).then().statusCode(200);
+    given().contentType(ContentType.JSON).body("1.25").when()
+        .put("/accounts/{accountNumber}/deposit", ACCOUNT).then().statusCode(200);
+    account = given().contentType(ContentType.JSON).body("0.75").when()
+        .put("/accounts/{accountNumber}/deposit", ACCOUNT).then().statusCode(200).extract()
+        .jsonPath().using(BIG_DECIMALS);
+    BigDecimal balance = account.getObject("balance", BigDecimal.class);
+
+    assertThat(account.getLong("postingSequence"), equalTo(start + 4));
+    assertThat(balance, equalTo(opening.add(new BigDecimal("9.50"))));
+
+    JsonPath entries =
+        given()
+            .queryParam("after", start)
+            .when().get("/accounts/{accountNumber}/ledger", ACCOUNT)
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath().using(BIG_DECIMALS);
+
+    assertThat(entries.getList("$"), hasSize(4));
+    assertThat(entries.getLong("[0].sequence"), equalTo(start + 1));
+    assertThat(entries.getObject("[1].amount", BigDecimal.class), equalTo(new BigDecimal("-2.50")));
+    assertThat(entries.getLong("[3].sequence"), equalTo(start + 4));
+
+    assertThat(balanceAt("sequence", start), equalTo(opening));
+    assertThat(balanceAt("sequence", start + 2), equalTo(opening.add(new BigDecimal("7.50"))));
+    assertThat(balanceAt("sequence", start + 4), equalTo(balance));
+    assertThat(balanceAt("at", Instant.now().toString()), equalTo(balance));
+  }
+
+  @Test
+  void testPostingsOnlyWriteTheRowWithSnapshots() throws SQLException {
+    given()
+        .contentType("text/csv")
+        .body("accountNumber,customerName,customerNumber,balance\n7000000501,River Song,7100000501,100.00")
+        .when().post("/accounts/import")
+        .then()
+        .statusCode(200)
+        .body("imported", equalTo(1));
+    long[] opened = row(7000000501L);
+
+    // Sequences 1 and 2 fall between snapshots, with the test interval of 3
+    for (String amount : new String[] { "10.00", "-2.50" }) {
+      given().contentType(ContentType.JSON).body(amount).when()
+          .post("/accounts/{accountNumber}/transaction", 7000000501L).then().statusCode(200);
+    }
+    assertThat(row(7000000501L), equalTo(opened));
+    JsonPath account = given().when().get("/accounts/{accountNumber}", 7000000501L).then().statusCode(200).extract()
+        .jsonPath().using(BIG_DECIMALS);
+    assertThat(account.getObject("balance", BigDecimal.class), equalTo(new BigDecimal("107.50")));
+    assertThat(account.getLong("postingSequence"), equalTo(2L));
+    assertThat(given().when().get("/accounts/{accountNumber}/balance", 7000000501L).then().statusCode(200)
+        .extract().as(BigDecimal.class), equalTo(new BigDecimal("107.50")));
+
+    given().contentType(ContentType.JSON).body("1.00").when()
+        .put("/accounts/{accountNumber}/deposit", 7000000501L).then().statusCode(200)
+        .body("postingSequence", equalTo(3));
+    long[] folded = row(7000000501L);
+    assertThat(folded[0], equalTo(10850L));
+    assertThat(folded[1], equalTo(3L));
+    assertThat(folded[2], equalTo(opened[2] + 1));
+  }
+
+  @Test
+  void testLedgerBalanceBeforeOpening() {
+    given()
+        .queryParam("at", "2000-01-01T00:00:00Z")
+        .when().get("/accounts/{accountNumber}/ledger/balance", ACCOUNT)
+        .then()
+        .statusCode(404);
+  }
+
+  @Test
+  void testLedgerBalanceRequiresPoint() {
+    given()
+        .when().get("/accounts/{accountNumber}/ledger/balance", ACCOUNT)
+        .then()
+        .statusCode(400);
+
+    given()
+        .queryParam("at", "yesterday")
+        .when().get("/accounts/{accountNumber}/ledger/balance", ACCOUNT)
+        .then()
+        .statusCode(400);
+  }
+
+  @Test
+  void testPostingSequenceIsNotBoundFromJson() {
+    Account account = jsonb.fromJson("{\"accountNumber\":1,\"postingSequence\":42}", Account.class);
+    assertThat(account.getPostingSequence(), equalTo(0L));
+  }
+
+  // The account row as stored: balance in minor units, posting sequence and version
+  private long[] row(long accountNumber) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement query = connection.prepareStatement(
+            "select balance, postingSequence, version from account where accountNumber = ?")) {
+      query.setLong(1, accountNumber);
+      try (ResultSet result = query.executeQuery()) {
+        result.next();
+        return new long[] { result.getLong(1), result.getLong(2), result.getLong(3) };
+      }
+    }
+  }
+
+  private BigDecimal balanceAt(String param, Object value) {
+    return given()
+        .queryParam(param, value)
+        .when().get("/accounts/{accountNumber}/ledger/balance", ACCOUNT)
+        .then()
+        .statusCode(200)
+        .extract()
+        .as(BigDecimal.class);
+  }
+}
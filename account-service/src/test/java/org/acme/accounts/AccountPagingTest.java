@@ -0,0 +1,83 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class AccountPagingTest {
+  @Test
+  void testKeysetPagination() {
+    int total = given().when().get("/accounts").then().statusCode(200).extract().jsonPath().getList("$").size();
+
+    List<Long> accountNumbers = new ArrayList<>();
+    Long cursor = null;
+    do {
+      AccountPage page =
+          given()
+              .queryParam("limit", 3)
+              .queryParam("after", cursor)
+              .when().get("/accounts/page")
+              .then()
+              .statusCode(200)
+              .extract()
+              .as(AccountPage.class);
+
+      assertThat(page.accounts.size(), lessThanOrEqualTo(3));
+      for (Account account : page.accounts) {
+        if (!accountNumbers.isEmpty()) {
+          assertThat(account.getAccountNumber(), greaterThan(accountNumbers.get(accountNumbers.size() - 1)));
+        }
+        accountNumbers.add(account.getAccountNumber());
+      }
+      cursor = page.nextCursor;
+    } while (cursor != null);
+
+    assertThat(accountNumbers.size(), equalTo(total));
+  }
+
+  @Test
+  void testCustomerFilter() {
+    AccountPage page =
+        given()
+            .queryParam("customerNumber", 332233)
+            .when().get("/accounts/page")
+            .then()
+            .statusCode(200)
+            .extract()
+            .as(AccountPage.class);
+
+    assertThat(page.accounts.size(), equalTo(1));
+    assertThat(page.accounts.get(0).getAccountNumber(), equalTo(444666L));
+    assertThat(page.nextCursor, nullValue());
+  }
+
+  @Test
+  void testStreamAccounts() {
+    int total = given().when().get("/accounts").then().statusCode(200).extract().jsonPath().getList("$").size();
+
+    String body =
+        given()
+            .when().get("/accounts/stream")
+            .then()
+            .statusCode(200)
+            .contentType("application/x-ndjson")
+            .extract()
+            .asString();
+
+    assertThat(body.lines().count(), equalTo((long) total));
+  }
+}
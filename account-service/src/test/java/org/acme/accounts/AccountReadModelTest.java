@@ -0,0 +1,84 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class AccountReadModelTest {
+
+  @Inject
+  AccountReadModel accountReadModel;
+
+  @Test
+  void testReadModelFollowsCommittedWrites() {
+    assertThat(accountReadModel.isReady(), equalTo(true));
+    BigDecimal before = given().when().get("/accounts/{accountNumber}/balance", 111222333)
+        .then().statusCode(200).extract().as(BigDecimal.class);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("3.33")
+        .when().put("/accounts/{accountNumber}/deposit", 111222333)
+        .then()
+        .statusCode(200);
+
+    BigDecimal after = given().when().get("/accounts/{accountNumber}/balance", 111222333)
+        .then().statusCode(200).extract().as(BigDecimal.class);
+    assertThat(after, equalTo(before.add(new BigDecimal("3.33"))));
+    assertThat(accountReadModel.find(111222333L).balanceAmount(), equalTo(after));
+
+    given()
+        .when().get("/accounts/{accountNumber}/status", 111222333)
+        .then()
+        .statusCode(200)
+        .body(equalTo("\"OPEN\""));
+  }
+
+  @Test
+  void testUnknownAccount() {
+    assertThat(accountReadModel.find(1L), nullValue());
+    given()
+        .when().get("/accounts/{accountNumber}/status", 1)
+        .then()
+        .statusCode(404);
+  }
+
+  @Test
+  void testTableKeepsNewestVersion() {
+    AccountTable table = new AccountTable(0);
+    assertThat(table.put(42L, 7L, 1000, AccountTable.NO_LIMIT, AccountStatus.OPEN, 3), equalTo(true));
+    assertThat(table.put(42L, 7L, 500, AccountTable.NO_LIMIT, AccountStatus.OPEN, 2), equalTo(false));
+    assertThat(table.get(42L).balance(), equalTo(1000L));
+    assertThat(table.get(42L).overdraftLimit(), nullValue());
+
+    assertThat(table.put(42L, 7L, -200, -50000L, AccountStatus.OVERDRAWN, 4), equalTo(true));
+    assertThat(table.get(42L).status(), equalTo(AccountStatus.OVERDRAWN));
+    assertThat(table.get(42L).overdraftLimit(), equalTo(-50000L));
+  }
+
+  @Test
+  void testTableGrows() {
+    AccountTable table = new AccountTable(0);
+    for (long accountNumber = 1; accountNumber <= 10_000; accountNumber++) {
+      table.put(accountNumber, accountNumber % 100, accountNumber * 100, AccountTable.NO_LIMIT, AccountStatus.OPEN, 0);
+    }
+    assertThat(table.size(), equalTo(10_000));
+    for (long accountNumber = 1; accountNumber <= 10_000; accountNumber++) {
+      assertThat(table.get(accountNumber).balance(), equalTo(accountNumber * 100));
+    }
+    assertThat(table.get(10_001L), nullValue());
+  }
+}
@@ -0,0 +1,78 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class AccountReadsTest {
+
+  @Inject
+  AccountReads accountReads;
+
+  @Test
+  void testReadsOutsideTransactionsUseReplica() {
+    // The test replica is the primary H2 database itself, so it never lags
+    accountReads.checkLag();
+    assertThat(accountReads.getLagMillis(), equalTo(0L));
+    assertThat(accountReads.route(), equalTo(AccountReads.Route.REPLICA));
+    assertThat(QuarkusTransaction.requiringNew().call(accountReads::route), equalTo(AccountReads.Route.PRIMARY));
+  }
+
+  @Test
+  void testReplicaReadsMatchPrimary() {
+    accountReads.checkLag();
+    Account account = accountReads.findByAccountNumber(87878787L);
+    Account primary = QuarkusTransaction.requiringNew().call(() -> accountReads.findByAccountNumber(87878787L));
+
+    assertThat(account, equalTo(primary));
+    assertThat(account.getId(), equalTo(primary.getId()));
+    assertThat(account.getPostingSequence(), equalTo(primary.getPostingSequence()));
+    assertThat(account.getHotSlots(), equalTo(primary.getHotSlots()));
+    assertThat(account.version(), equalTo(primary.version()));
+    assertThat(accountReads.findBalance(87878787L), equalTo(primary.balance()));
+  }
+
+  @Test
+  void testReplicaReadsMapHotSlotsAndVersion() {
+    given()
+        .contentType("text/csv")
+        .body("accountNumber,customerName,customerNumber,balance\n7000000301,Martha Jones,7100000301,10.00")
+        .when().post("/accounts/import")
+        .then()
+        .statusCode(200)
+        .body("imported", equalTo(1));
+    given()
+        .contentType(ContentType.JSON)
+        .body("4")
+        .when().put("/accounts/{accountNumber}/slots", 7000000301L)
+        .then()
+        .statusCode(200);
+
+    accountReads.checkLag();
+    Account account = accountReads.findByAccountNumber(7000000301L);
+    Account primary = QuarkusTransaction.requiringNew().call(() -> accountReads.findByAccountNumber(7000000301L));
+
+    assertThat(account.getHotSlots(), equalTo(4));
+    assertThat(account.version(), equalTo(primary.version()));
+  }
+
+  @Test
+  void testMissingAccountIsNotFound() {
+    given()
+        .contentType(ContentType.JSON)
+        .when().get("/accounts/{accountNumber}", 1L)
+        .then()
+        .statusCode(404);
+  }
+}
@@ -1,7 +1,8 @@
 package org.acme.accounts;
 
-import org.acme.accounts.events.OverdraftLimitUpdate;
-import org.acme.accounts.events.Overdrawn;
+import org.acme.banking.Money;
+import org.acme.banking.events.OverdraftLimitUpdate;
+import org.acme.banking.events.Overdrawn;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.junit.jupiter.api.Test;
 
@@ -20,61 +21,76 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @QuarkusTest
 @QuarkusTestResource(InMemoryLifecycleManager.class)
 
 public class AccountResourceEventsTest {
+	private static final long ACCOUNT = 7000001101L;
+	private static final long CUSTOMER = 7100001101L;
+
 	@Inject
 	@Any
 	InMemoryConnector connector;
 
+	@Inject
+	OutboxRelay outboxRelay;
+
 	@Test
 	void testOverdraftEvent() {
+		TestAccounts.open(ACCOUNT, CUSTOMER, "439.01", "-200.00");
 		InMemorySink<Overdrawn> overdrawnSink = connector.sink("account-overdrawn");
-		Account account = given().when().get("/accounts/{accountNumber}", 78790).then().statusCode(200).extract()
+		Account account = given().when().get("/accounts/{accountNumber}", ACCOUNT).then().statusCode(200).extract()
 				.as(Account.class);
 
 		BigDecimal withdrawal = new BigDecimal("23.82");
 		BigDecimal balance = account.getBalance().subtract(withdrawal);
 
 		account = given().contentType(ContentType.JSON).body(withdrawal.toString()).when()
-				.put("/accounts/{accountNumber}/withdrawal", 78790).then().statusCode(200).extract().as(Account.class);
+				.put("/accounts/{accountNumber}/withdrawal", ACCOUNT).then().statusCode(200).extract().as(Account.class);
 
-		assertThat(overdrawnSink.received().size(), equalTo(0));
+		// Drains events other tests left in the outbox as well, so only the next overdraft is counted below
+		outboxRelay.publishPending();
+		assertThat(overdrawnSink.received().stream().filter(msg -> msg.getPayload().accountNumber == ACCOUNT).count(),
+				equalTo(0L));
+		overdrawnSink.clear();
 
 		withdrawal = new BigDecimal("6000.00");
 		balance = account.getBalance().subtract(withdrawal);
 
 		account = given().contentType(ContentType.JSON).body(withdrawal.toString()).when()
-				.put("/accounts/{accountNumber}/withdrawal", 78790).then().statusCode(200).extract().as(Account.class);
+				.put("/accounts/{accountNumber}/withdrawal", ACCOUNT).then().statusCode(200).extract().as(Account.class);
 
 		assertThat(account.getAccountStatus(), equalTo(AccountStatus.OVERDRAWN));
 		assertThat(account.getBalance(), equalTo(balance));
+
+		outboxRelay.publishPending();
 		assertThat(overdrawnSink.received().size(), equalTo(1));
 
 		Message<Overdrawn> overdrawnMsg = overdrawnSink.received().get(0);
 		assertThat(overdrawnMsg, notNullValue());
 		Overdrawn event = overdrawnMsg.getPayload();
-		assertThat(event.accountNumber, equalTo(78790L));
-		assertThat(event.customerNumber, equalTo(444222L));
-		assertThat(event.balance, equalTo(balance));
-		assertThat(event.overdraftLimit, equalTo(new BigDecimal("-200.00")));
+		assertThat(event.accountNumber, equalTo(ACCOUNT));
+		assertThat(event.customerNumber, equalTo(CUSTOMER));
+		assertThat(event.balance, equalTo(Money.of(balance)));
+		assertThat(event.overdraftLimit, equalTo(Money.parse("-200.00")));
 
 	}
 
 	@Test
 	void testOverdraftUpdate() {
-		InMemorySource<OverdraftLimitUpdate> source = connector.source("overdraft-update");
+		InMemorySource<List<OverdraftLimitUpdate>> source = connector.source("overdraft-update");
 		Account account = given().when().get("/accounts/{accountNumber}", 123456789).then().statusCode(200).extract()
 				.as(Account.class);
 		
 		assertThat(account.getOverdraftLimit(), equalTo(new BigDecimal("200.00")));
 		OverdraftLimitUpdate updateEvent = new OverdraftLimitUpdate();
 		updateEvent.accountNumber = 123456789L;
-		updateEvent.newOverdraftLimit = new BigDecimal("-600.00");
+		updateEvent.newOverdraftLimit = Money.parse("-600.00");
 		
-		source.send(updateEvent);
+		source.send(List.of(updateEvent));
 		
 		account = given()
 				.when().get("/accounts/{accountNumber}", 123456789)
@@ -88,4 +104,35 @@ public class AccountResourceEventsTest {
 		assertThat(account.getOverdraftLimit(), equalTo(new BigDecimal("-600.00")));
 
 	}
+
+	@Test
+	void testOverdraftUpdateBatchKeepsLatest() throws InterruptedException {
+		InMemorySource<List<OverdraftLimitUpdate>> source = connector.source("overdraft-update");
+
+		OverdraftLimitUpdate first = new OverdraftLimitUpdate();
+		first.accountNumber = 111222333L;
+		first.newOverdraftLimit = Money.parse("-100.00");
+		OverdraftLimitUpdate second = new OverdraftLimitUpdate();
+		second.accountNumber = 111222333L;
+		second.newOverdraftLimit = Money.parse("-350.00");
+
+		source.send(List.of(first, second));
+
+		assertThat(awaitOverdraftLimit(111222333L, new BigDecimal("-350.00")), equalTo(new BigDecimal("-350.00")));
+	}
+
+	// The batch is processed on a virtual thread, so the new limit shows up some time after send() returns
+	private BigDecimal awaitOverdraftLimit(Long accountNumber, BigDecimal expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		BigDecimal limit;
+		do {
+			limit = given().when().get("/accounts/{accountNumber}", accountNumber).then().statusCode(200).extract()
+					.as(Account.class).getOverdraftLimit();
+			if (expected.equals(limit)) {
+				return limit;
+			}
+			Thread.sleep(50);
+		} while (System.nanoTime() < deadline);
+		return limit;
+	}
 }
@@ -0,0 +1,72 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.config.JsonPathConfig;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class CustomerSummaryTest {
+  private static final JsonPathConfig BIG_DECIMALS = new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL);
+  private static final long ACCOUNT = 7000000901L;
+  private static final long CUSTOMER = 7100000901L;
+
+  @BeforeEach
+  void openAccount() {
+    TestAccounts.open(ACCOUNT, CUSTOMER, "12.98");
+  }
+
+  @Test
+  void testSummaryFollowsDeposits() {
+    // The customer holds a single account, so the summary total is that account's balance
+    JsonPath summary = summary(CUSTOMER);
+    assertThat(summary.getLong("accountCount"), equalTo(1L));
+    BigDecimal total = summary.getObject("totalBalance", BigDecimal.class);
+
+    BigDecimal balance =
+        given()
+            .contentType(ContentType.JSON)
+            .body("5.00")
+            .when().put("/accounts/{accountNumber}/deposit", ACCOUNT)
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath().using(BIG_DECIMALS)
+            .getObject("balance", BigDecimal.class);
+
+    summary = summary(CUSTOMER);
+    assertThat(summary.getLong("accountCount"), equalTo(1L));
+    assertThat(summary.getObject("totalBalance", BigDecimal.class), equalTo(total.add(new BigDecimal("5.00"))));
+    assertThat(summary.getObject("totalBalance", BigDecimal.class), equalTo(balance));
+    assertThat(summary.getLong("overdrawnAccounts"), equalTo(0L));
+  }
+
+  @Test
+  void testSummaryForUnknownCustomer() {
+    given()
+        .when().get("/accounts/customers/{customerNumber}/summary", 1L)
+        .then()
+        .statusCode(404);
+  }
+
+  private JsonPath summary(Long customerNumber) {
+    return given()
+        .when().get("/accounts/customers/{customerNumber}/summary", customerNumber)
+        .then()
+        .statusCode(200)
+        .extract()
+        .jsonPath().using(BIG_DECIMALS);
+  }
+}
@@ -0,0 +1,245 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.path.json.config.JsonPathConfig;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class HotAccountTest {
+  private static final JsonPathConfig BIG_DECIMALS = new JsonPathConfig(JsonPathConfig.NumberReturnType.BIG_DECIMAL);
+  private static final long ACCOUNT = 7000000401L;
+  private static final long CUSTOMER = 7100000401L;
+
+  @Inject
+  HotAccounts hotAccounts;
+
+  @Test
+  void testSlotsAddUpToTheBalance() throws InterruptedException {
+    // An account and customer of their own, so no other test moves the balances asserted here
+    importAccount(ACCOUNT, CUSTOMER, "439.01");
+    given()
+        .contentType(ContentType.JSON)
+        .body("4")
+        .when().put("/accounts/{accountNumber}/slots", ACCOUNT)
+        .then()
+        .statusCode(200)
+        .body("hotSlots", equalTo(4));
+    assertThat(hotAccounts.isHot(ACCOUNT), equalTo(true));
+
+    for (int i = 0; i < 20; i++) {
+      given()
+          .contentType(ContentType.JSON)
+          .body("1.00")
+          .when().put("/accounts/{accountNumber}/deposit", ACCOUNT)
+          .then()
+          .statusCode(200);
+    }
+
+    assertThat(balance(), equalTo(new BigDecimal("459.01")));
+    assertThat(
+        given()
+            .when().get("/accounts/{accountNumber}", ACCOUNT)
+            .then()
+            .statusCode(200)
+            .extract()
+            .jsonPath().using(BIG_DECIMALS)
+            .getObject("balance", BigDecimal.class),
+        equalTo(new BigDecimal("459.01")));
+    // The summary only follows once the slots are swept into the account
+    assertThat(totalBalance(), equalTo(new BigDecimal("439.01")));
+
+    hotAccounts.sweep(ACCOUNT);
+    assertThat(totalBalance(), equalTo(new BigDecimal("459.01")));
+    assertThat(balance(), equalTo(new BigDecimal("459.01")));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("5.00")
+        .when().put("/accounts/{accountNumber}/deposit", ACCOUNT)
+        .then()
+        .statusCode(200);
+
+    // The withdrawal sweeps the unswept 5.00 first and only then runs into the overdraft
+    given()
+        .contentType(ContentType.JSON)
+        .body("500.00")
+        .when().put("/accounts/{accountNumber}/withdrawal", ACCOUNT)
+        .then()
+        .statusCode(200)
+        .body("accountStatus", equalTo("OVERDRAWN"));
+    assertThat(balance(), equalTo(new BigDecimal("-35.99")));
+    assertThat(totalBalance(), equalTo(new BigDecimal("-35.99")));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("0")
+        .when().put("/accounts/{accountNumber}/slots", ACCOUNT)
+        .then()
+        .statusCode(200)
+        .body("hotSlots", nullValue());
+    assertThat(hotAccounts.isHot(ACCOUNT), equalTo(false));
+    assertThat(balance(), equalTo(new BigDecimal("-35.99")));
+  }
+
+  @Test
+  void testSlotDepositsAreLedgeredPerSweep() throws InterruptedException {
+    long account = 7000000404L;
+    long customer = 7100000404L;
+    importAccount(account, customer, "100.00");
+    given()
+        .contentType(ContentType.JSON)
+        .body("2")
+        .when().put("/accounts/{accountNumber}/slots", account)
+        .then()
+        .statusCode(200);
+    long start = given().when().get("/accounts/{accountNumber}", account).then().statusCode(200).extract()
+        .jsonPath().getLong("postingSequence");
+
+    for (int i = 0; i < 3; i++) {
+      given()
+          .contentType(ContentType.JSON)
+          .body("1.00")
+          .when().put("/accounts/{accountNumber}/deposit", account)
+          .then()
+          .statusCode(200);
+    }
+
+    // Deliberately aggregated: no ledger entry per slot deposit, only the listings add the slots in
+    assertThat(ledger(account, start).getList("$"), hasSize(0));
+    assertThat(
+        given().when().get("/accounts").then().statusCode(200).extract().jsonPath().using(BIG_DECIMALS)
+            .getObject("find { it.accountNumber == " + account + "L }.balance", BigDecimal.class),
+        equalTo(new BigDecimal("103.00")));
+    assertThat(
+        given().queryParam("customerNumber", customer).when().get("/accounts/page").then().statusCode(200)
+            .extract().jsonPath().using(BIG_DECIMALS).getObject("accounts[0].balance", BigDecimal.class),
+        equalTo(new BigDecimal("103.00")));
+    String streamed = given().queryParam("customerNumber", customer).when().get("/accounts/stream").then()
+        .statusCode(200).extract().asString();
+    assertThat(JsonPath.from(streamed.strip()).using(BIG_DECIMALS).getObject("balance", BigDecimal.class),
+        equalTo(new BigDecimal("103.00")));
+
+    hotAccounts.sweep(account);
+    JsonPath entries = ledger(account, start);
+    assertThat(entries.getList("$"), hasSize(1));
+    assertThat(entries.getObject("[0].amount", BigDecimal.class), equalTo(new BigDecimal("3.00")));
+  }
+
+  @Test
+  void testConcurrentDebitsTakeTheLock() throws Exception {
+    importAccount(7000000402L, 7100000402L, "100.00");
+    given()
+        .contentType(ContentType.JSON)
+        .body("4")
+        .when().put("/accounts/{accountNumber}/slots", 7000000402L)
+        .then()
+        .statusCode(200);
+
+    // Unserialized, all but one of these would take a ledger sequence number that is already taken
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> debits = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        debits.add(executor.submit(() -> given()
+            .contentType(ContentType.JSON)
+            .body("-1.00")
+            .when().post("/accounts/{accountNumber}/transaction", 7000000402L)
+            .then()
+            .extract()
+            .statusCode()));
+      }
+      for (Future<Integer> debit : debits) {
+        assertThat(debit.get(), equalTo(200));
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(
+        given()
+            .when().get("/accounts/{accountNumber}/balance", 7000000402L)
+            .then()
+            .statusCode(200)
+            .extract()
+            .as(BigDecimal.class),
+        equalTo(new BigDecimal("92.00")));
+  }
+
+  @Test
+  void testSlotCountIsBounded() {
+    TestAccounts.open(7000000403L, 7100000403L, "10.00");
+    given()
+        .contentType(ContentType.JSON)
+        .body("1000")
+        .when().put("/accounts/{accountNumber}/slots", 7000000403L)
+        .then()
+        .statusCode(400);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("4")
+        .when().put("/accounts/{accountNumber}/slots", 1)
+        .then()
+        .statusCode(404);
+  }
+
+  private static void importAccount(long accountNumber, long customerNumber, String balance) {
+    given()
+        .contentType("text/csv")
+        .body("accountNumber,customerName,customerNumber,balance\n" + accountNumber + ",Rory Williams," + customerNumber
+            + "," + balance)
+        .when().post("/accounts/import")
+        .then()
+        .statusCode(200)
+        .body("imported", equalTo(1));
+  }
+
+  private static JsonPath ledger(long accountNumber, long after) {
+    return given()
+        .queryParam("after", after)
+        .when().get("/accounts/{accountNumber}/ledger", accountNumber)
+        .then()
+        .statusCode(200)
+        .extract()
+        .jsonPath().using(BIG_DECIMALS);
+  }
+
+  private BigDecimal balance() {
+    return given()
+        .when().get("/accounts/{accountNumber}/balance", ACCOUNT)
+        .then()
+        .statusCode(200)
+        .extract()
+        .as(BigDecimal.class);
+  }
+
+  private BigDecimal totalBalance() {
+    return given()
+        .when().get("/accounts/customers/{customerNumber}/summary", CUSTOMER)
+        .then()
+        .statusCode(200)
+        .extract()
+        .jsonPath().using(BIG_DECIMALS)
+        .getObject("totalBalance", BigDecimal.class);
+  }
+}
@@ -0,0 +1,123 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class IdempotencyTest {
+  private static final long ACCOUNT = 7000000202L;
+
+  @BeforeEach
+  void openAccount() {
+    TestAccounts.open(ACCOUNT, 7100000202L, "100.00");
+  }
+
+  @Test
+  void testRetriedDepositAppliesOnce() {
+    BigDecimal before = balance();
+    String key = UUID.randomUUID().toString();
+
+    Account first = deposit(key, "12.34");
+    Account retried = deposit(key, "12.34");
+
+    assertThat(first.getBalance(), equalTo(before.add(new BigDecimal("12.34"))));
+    assertThat(retried, equalTo(first));
+    assertThat(balance(), equalTo(first.getBalance()));
+  }
+
+  @Test
+  void testKeyReusedForDifferentRequest() {
+    String key = UUID.randomUUID().toString();
+    deposit(key, "1.00");
+
+    given()
+        .contentType(ContentType.JSON)
+        .header("Idempotency-Key", key)
+        .body("2.00")
+        .when().put("/accounts/{accountNumber}/deposit", ACCOUNT)
+        .then()
+        .statusCode(422);
+  }
+
+  @Test
+  void testConcurrentRetriesOnHotAccount() throws Exception {
+    // An account of its own: hot deposits skip the account lock, so every retry races for the key
+    given()
+        .contentType("text/csv")
+        .body("accountNumber,customerName,customerNumber,balance\n7000000201,Donna Noble,7100000201,10.00")
+        .when().post("/accounts/import")
+        .then()
+        .statusCode(200)
+        .body("imported", equalTo(1));
+    given()
+        .contentType(ContentType.JSON)
+        .body("4")
+        .when().put("/accounts/{accountNumber}/slots", 7000000201L)
+        .then()
+        .statusCode(200);
+
+    String key = UUID.randomUUID().toString();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Account>> retries = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        retries.add(executor.submit(() -> deposit(7000000201L, key, "2.50")));
+      }
+      Account first = retries.get(0).get();
+      for (Future<Account> retry : retries) {
+        assertThat(retry.get(), equalTo(first));
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(balance(7000000201L), equalTo(new BigDecimal("12.50")));
+  }
+
+  private Account deposit(String key, String amount) {
+    return deposit(ACCOUNT, key, amount);
+  }
+
+  private Account deposit(Long accountNumber, String key, String amount) {
+    return given()
+        .contentType(ContentType.JSON)
+        .header("Idempotency-Key", key)
+        .body(amount)
+        .when().put("/accounts/{accountNumber}/deposit", accountNumber)
+        .then()
+        .statusCode(200)
+        .extract()
+        .as(Account.class);
+  }
+
+  private BigDecimal balance() {
+    return balance(ACCOUNT);
+  }
+
+  private BigDecimal balance(Long accountNumber) {
+    return given()
+        .when().get("/accounts/{accountNumber}/balance", accountNumber)
+        .then()
+        .statusCode(200)
+        .extract()
+        .as(BigDecimal.class);
+  }
+}
@@ -0,0 +1,73 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.h2.H2DatabaseTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+@QuarkusTestResource(H2DatabaseTestResource.class)
+public class PoolAdmissionTest {
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final long ACCOUNT = 7000001001L;
+
+  @Inject
+  @RegistryType(type = MetricRegistry.Type.APPLICATION)
+  MetricRegistry metricRegistry;
+
+  @BeforeEach
+  void openAccount() {
+    TestAccounts.open(ACCOUNT, 7100001001L, "10.00");
+  }
+
+  @Test
+  void testIdlePoolAdmitsAnyDeadline() {
+    given()
+        .header(PoolAdmissionFilter.DEADLINE_HEADER, "0")
+        .when().get("/accounts/{accountNumber}", ACCOUNT)
+        .then()
+        .statusCode(200);
+
+    given()
+        .header(PoolAdmissionFilter.DEADLINE_HEADER, "soon")
+        .when().get("/accounts/{accountNumber}", ACCOUNT)
+        .then()
+        .statusCode(200);
+  }
+
+  @Test
+  void testConnectionsAreReleased() {
+    given()
+        .when().get("/accounts/page")
+        .then()
+        .statusCode(200);
+
+    Tag method = new Tag("method", "accountPage");
+    assertThat(metricRegistry.concurrentGauge("poolHeld", method).getCount(), equalTo(0L));
+    assertThat(metricRegistry.concurrentGauge("poolWaiting", method).getCount(), equalTo(0L));
+    assertThat(metricRegistry.timer("poolHold", method).getCount() > 0, equalTo(true));
+  }
+
+  @Test
+  void testExpectedWait() {
+    // A connection to spare, or room to open one, means no wait
+    assertThat(PoolUsage.estimateWaitNanos(5, 1, 0, 20, 10 * MILLIS), equalTo(0L));
+    assertThat(PoolUsage.estimateWaitNanos(19, 0, 0, 20, 10 * MILLIS), equalTo(0L));
+
+    // Saturated: 39 waiters plus this request, served by 20 connections held 10 ms each
+    assertThat(PoolUsage.estimateWaitNanos(20, 0, 39, 20, 10 * MILLIS), equalTo(20 * MILLIS));
+  }
+}
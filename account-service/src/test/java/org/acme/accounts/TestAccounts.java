@@ -0,0 +1,33 @@
+package org.acme.accounts;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Opens accounts a single test class owns, so no other test class moves the balances it asserts. Each test class
+ * takes its own block of account numbers 70000xxxyy, with customer numbers 71000xxxyy to match. Importing an
+ * account that already exists is skipped, so calling {@link #open} before every test of a class is safe.
+ */
+final class TestAccounts {
+
+  private TestAccounts() {
+  }
+
+  static void open(long accountNumber, long customerNumber, String balance) {
+    importCsv("accountNumber,customerName,customerNumber,balance\n" + accountNumber + ",Clara Oswald," + customerNumber
+        + "," + balance);
+  }
+
+  static void open(long accountNumber, long customerNumber, String balance, String overdraftLimit) {
+    importCsv("accountNumber,customerName,customerNumber,balance,overdraftLimit\n" + accountNumber + ",Clara Oswald,"
+        + customerNumber + "," + balance + "," + overdraftLimit);
+  }
+
+  private static void importCsv(String csv) {
+    given()
+        .contentType("text/csv")
+        .body(csv)
+        .when().post("/accounts/import")
+        .then()
+        .statusCode(200);
+  }
+}
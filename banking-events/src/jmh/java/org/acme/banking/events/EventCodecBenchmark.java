@@ -0,0 +1,75 @@
+package org.acme.banking.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.banking.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+/**
+ * Encode and decode cost of an Overdrawn event with the binary codec and with JSON-B, the format
+ * the services used before. Message sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventCodecBenchmark {
+
+	private OverdrawnCodec codec;
+	private Jsonb jsonb;
+	private Overdrawn event;
+	private byte[] binary;
+	private byte[] json;
+
+	@Setup
+	public void setUp() {
+		codec = new OverdrawnCodec();
+		jsonb = JsonbBuilder.create();
+		event = new Overdrawn(78790L, 444222L, Money.parse("-5584.81"), Money.parse("-200.00"));
+		binary = codec.serialize("overdrawn", event);
+		json = jsonb.toJson(event).getBytes(StandardCharsets.UTF_8);
+
+		System.out.printf("%nOverdrawn: binary %d bytes, JSON-B %d bytes per message%n", binary.length, json.length);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		jsonb.close();
+	}
+
+	@Benchmark
+	public byte[] encodeBinary() {
+		return codec.serialize("overdrawn", event);
+	}
+
+	@Benchmark
+	public Overdrawn decodeBinary() {
+		return codec.deserialize("overdrawn", binary);
+	}
+
+	@Benchmark
+	public byte[] encodeJson() {
+		return jsonb.toJson(event).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public Overdrawn decodeJson() {
+		return jsonb.fromJson(new String(json, StandardCharsets.UTF_8), Overdrawn.class);
+	}
+}
@@ -0,0 +1,15 @@
+package org.acme.banking;
+
+/**
+ * Thrown by {@link Money#parse(CharSequence)} and {@link Money#of(java.math.BigDecimal)} for input
+ * that is no amount of money: not a number, more precise than the minor unit, or out of range.
+ * Overflow in arithmetic on valid amounts stays an {@link ArithmeticException}.
+ */
+public class InvalidAmountException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	public InvalidAmountException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,139 @@
+package org.acme.banking;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money held as a {@code long} count of minor units (cents). Arithmetic throws
+ * {@link ArithmeticException} on overflow instead of wrapping. Parsing and conversion from
+ * BigDecimal reject any precision beyond the minor unit rather than rounding it away, and throw
+ * {@link InvalidAmountException} for that and any other input that is not an amount in range.
+ * Serializable so entities holding it can be kept in the second-level cache.
+ */
+public record Money(long minorUnits) implements Comparable<Money>, Serializable {
+
+	public static final int SCALE = 2;
+	public static final Money ZERO = new Money(0);
+
+	private static final long MINOR_UNITS_PER_MAJOR = 100;
+
+	public static Money ofMinor(long minorUnits) {
+		return minorUnits == 0 ? ZERO : new Money(minorUnits);
+	}
+
+	public static Money of(BigDecimal amount) {
+		try {
+			return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+		} catch (ArithmeticException e) {
+			throw new InvalidAmountException("Not an amount of at most " + SCALE + " decimal places in range: " + amount);
+		}
+	}
+
+	public static Money parse(CharSequence text) {
+		try {
+			return parseExact(text);
+		} catch (ArithmeticException e) {
+			throw new InvalidAmountException("Amount out of range: " + text);
+		}
+	}
+
+	private static Money parseExact(CharSequence text) {
+		int start = 0;
+		int end = text.length();
+		while (start < end && Character.isWhitespace(text.charAt(start))) {
+			start++;
+		}
+		while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+
+		boolean negative = false;
+		if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+			negative = text.charAt(start) == '-';
+			start++;
+		}
+
+		int i = start;
+		long major = 0;
+		while (i < end && text.charAt(i) != '.') {
+			major = Math.addExact(Math.multiplyExact(major, 10), digit(text, i++));
+		}
+		int integerDigits = i - start;
+
+		long minor = 0;
+		int fractionDigits = 0;
+		if (i < end) {
+			i++;
+			for (; i < end; i++, fractionDigits++) {
+				int digit = digit(text, i);
+				if (fractionDigits < SCALE) {
+					minor = minor * 10 + digit;
+				} else if (digit != 0) {
+					throw new InvalidAmountException("More than " + SCALE + " decimal places: " + text);
+				}
+			}
+		}
+		if (integerDigits == 0 && fractionDigits == 0) {
+			throw new InvalidAmountException("Not an amount: " + text);
+		}
+		for (int scale = Math.min(fractionDigits, SCALE); scale < SCALE; scale++) {
+			minor *= 10;
+		}
+
+		long value = Math.addExact(Math.multiplyExact(major, MINOR_UNITS_PER_MAJOR), minor);
+		return ofMinor(negative ? -value : value);
+	}
+
+	public Money plus(Money other) {
+		return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+	}
+
+	public Money minus(Money other) {
+		return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+	}
+
+	public Money negate() {
+		return ofMinor(Math.negateExact(minorUnits));
+	}
+
+	public int signum() {
+		return Long.signum(minorUnits);
+	}
+
+	public boolean isNegative() {
+		return minorUnits < 0;
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(minorUnits, SCALE);
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		return Long.compare(minorUnits, other.minorUnits);
+	}
+
+	@Override
+	public String toString() {
+		long major = Math.abs(minorUnits / MINOR_UNITS_PER_MAJOR);
+		long minor = Math.abs(minorUnits % MINOR_UNITS_PER_MAJOR);
+		StringBuilder text = new StringBuilder(24);
+		if (minorUnits < 0) {
+			text.append('-');
+		}
+		text.append(major).append('.');
+		if (minor < 10) {
+			text.append('0');
+		}
+		return text.append(minor).toString();
+	}
+
+	private static int digit(CharSequence text, int index) {
+		char c = text.charAt(index);
+		if (c < '0' || c > '9') {
+			throw new InvalidAmountException("Not an amount: " + text);
+		}
+		return c - '0';
+	}
+}
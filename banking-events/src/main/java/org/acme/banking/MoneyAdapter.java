@@ -0,0 +1,19 @@
+package org.acme.banking;
+
+import java.math.BigDecimal;
+
+import jakarta.json.bind.adapter.JsonbAdapter;
+
+// Keeps Money fields on the wire as plain JSON numbers, e.g. 550.78
+public class MoneyAdapter implements JsonbAdapter<Money, BigDecimal> {
+
+	@Override
+	public BigDecimal adaptToJson(Money money) {
+		return money.toBigDecimal();
+	}
+
+	@Override
+	public Money adaptFromJson(BigDecimal amount) {
+		return Money.of(amount);
+	}
+}
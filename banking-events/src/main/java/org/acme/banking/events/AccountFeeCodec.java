@@ -0,0 +1,22 @@
+package org.acme.banking.events;
+
+public class AccountFeeCodec extends EventCodec<AccountFee> {
+
+	public AccountFeeCodec() {
+		super(AccountFee.class, 1, 2);
+	}
+
+	@Override
+	protected void write(AccountFee event, byte[] record) {
+		putLong(record, 0, event.accountNumber);
+		putMoney(record, 1, event.overdraftFee);
+	}
+
+	@Override
+	protected AccountFee read(byte[] record) {
+		AccountFee event = new AccountFee();
+		event.accountNumber = getLong(record, 0);
+		event.overdraftFee = getMoney(record, 1);
+		return event;
+	}
+}
@@ -0,0 +1,147 @@
+package org.acme.banking.events;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.acme.banking.Money;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+/**
+ * Kafka serializer and deserializer for one event type, using a fixed-width binary layout:
+ *
+ * <pre>
+ * byte 0      schema version (1..122)
+ * byte 1..m   null mask, one bit per field with bit i of byte 1 + i / 8 set when field i is null
+ * byte m+1..  one big-endian 8 byte slot per field: longs as is, Money as minor units
+ * </pre>
+ *
+ * The mask takes {@code ceil(fields / 8)} bytes, so it only caps the field count at what fits in a
+ * record, and the number of fields a record holds follows from its length. Events of up to 8
+ * fields have the one byte mask of the first format.
+ * <p>
+ * Evolution rules: fields are only ever appended, together with a new schema version, and never
+ * reordered, resized or reused; a retired field is written as null. Fields missing from an older,
+ * shorter record decode as null. A record of a newer version than the decoder's, or of no valid
+ * version, is rejected with a {@link SerializationException}, so consumers have to be upgraded
+ * before the producers of a new version. A record starting with {@code '{'} predates the binary
+ * format and is decoded with JSON-B.
+ */
+public abstract class EventCodec<T> implements Serializer<T>, Deserializer<T> {
+
+	private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+	private static final int MASK = 1;
+	private static final int SLOT = Long.BYTES;
+	private static final byte JSON_OBJECT = '{';
+
+	private static Jsonb jsonb;
+
+	private final Class<T> type;
+	private final byte version;
+	private final int fields;
+
+	protected EventCodec(Class<T> type, int version, int fields) {
+		if (version < 1 || version >= JSON_OBJECT || fields < 0) {
+			throw new IllegalArgumentException("Unsupported schema version " + version + " with " + fields + " fields");
+		}
+		this.type = type;
+		this.version = (byte) version;
+		this.fields = fields;
+	}
+
+	protected abstract void write(T event, byte[] record);
+
+	protected abstract T read(byte[] record);
+
+	@Override
+	public byte[] serialize(String topic, T event) {
+		if (event == null) {
+			return null;
+		}
+		byte[] record = new byte[MASK + maskBytes(fields) + fields * SLOT];
+		record[0] = version;
+		write(event, record);
+		return record;
+	}
+
+	@Override
+	public T deserialize(String topic, byte[] record) {
+		if (record == null || record.length == 0) {
+			return null;
+		}
+		if (record[0] == JSON_OBJECT) {
+			return json().fromJson(new String(record, StandardCharsets.UTF_8), type);
+		}
+		if (record[0] < 1 || record[0] > version) {
+			throw new SerializationException("Unsupported " + type.getSimpleName() + " schema version " + record[0]
+					+ ", this decoder reads versions 1 to " + version);
+		}
+		if (fields(record) < 0) {
+			throw new SerializationException("Malformed " + type.getSimpleName() + " record of " + record.length + " bytes");
+		}
+		return read(record);
+	}
+
+	// Serializer and Deserializer both default configure() and close(), so they have to be chosen here
+	@Override
+	public void configure(Map<String, ?> configs, boolean isKey) {
+	}
+
+	@Override
+	public void close() {
+	}
+
+	protected static void putLong(byte[] record, int field, Long value) {
+		int mask = maskBytes(fields(record));
+		if (value == null) {
+			record[MASK + field / Byte.SIZE] |= (byte) (1 << (field % Byte.SIZE));
+		} else {
+			LONG.set(record, MASK + mask + field * SLOT, value.longValue());
+		}
+	}
+
+	protected static void putMoney(byte[] record, int field, Money value) {
+		putLong(record, field, value == null ? null : value.minorUnits());
+	}
+
+	protected static Long getLong(byte[] record, int field) {
+		int fields = fields(record);
+		if (!present(record, fields, field)) {
+			return null;
+		}
+		return (long) LONG.get(record, MASK + maskBytes(fields) + field * SLOT);
+	}
+
+	protected static Money getMoney(byte[] record, int field) {
+		Long minorUnits = getLong(record, field);
+		return minorUnits == null ? null : Money.ofMinor(minorUnits);
+	}
+
+	private static boolean present(byte[] record, int fields, int field) {
+		return field < fields && (record[MASK + field / Byte.SIZE] & (1 << (field % Byte.SIZE))) == 0;
+	}
+
+	private static int maskBytes(int fields) {
+		return (fields + Byte.SIZE - 1) / Byte.SIZE;
+	}
+
+	// A record of n fields is 1 + ceil(n / 8) + 8n bytes long, so n is the one count that fits; -1 if none does
+	private static int fields(byte[] record) {
+		int fields = (int) ((record.length - MASK) * (long) Byte.SIZE / (Byte.SIZE * SLOT + 1));
+		return MASK + maskBytes(fields) + fields * SLOT == record.length ? fields : -1;
+	}
+
+	private static synchronized Jsonb json() {
+		if (jsonb == null) {
+			jsonb = JsonbBuilder.create();
+		}
+		return jsonb;
+	}
+}
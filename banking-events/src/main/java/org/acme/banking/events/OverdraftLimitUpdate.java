@@ -0,0 +1,14 @@
+package org.acme.banking.events;
+
+import org.acme.banking.Money;
+import org.acme.banking.MoneyAdapter;
+
+import jakarta.json.bind.annotation.JsonbTypeAdapter;
+
+public class OverdraftLimitUpdate {
+
+	public Long accountNumber;
+	@JsonbTypeAdapter(MoneyAdapter.class)
+	public Money newOverdraftLimit;
+
+}
@@ -0,0 +1,22 @@
+package org.acme.banking.events;
+
+public class OverdraftLimitUpdateCodec extends EventCodec<OverdraftLimitUpdate> {
+
+	public OverdraftLimitUpdateCodec() {
+		super(OverdraftLimitUpdate.class, 1, 2);
+	}
+
+	@Override
+	protected void write(OverdraftLimitUpdate event, byte[] record) {
+		putLong(record, 0, event.accountNumber);
+		putMoney(record, 1, event.newOverdraftLimit);
+	}
+
+	@Override
+	protected OverdraftLimitUpdate read(byte[] record) {
+		OverdraftLimitUpdate event = new OverdraftLimitUpdate();
+		event.accountNumber = getLong(record, 0);
+		event.newOverdraftLimit = getMoney(record, 1);
+		return event;
+	}
+}
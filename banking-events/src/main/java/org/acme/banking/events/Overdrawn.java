@@ -0,0 +1,27 @@
+package org.acme.banking.events;
+
+import org.acme.banking.Money;
+import org.acme.banking.MoneyAdapter;
+
+import jakarta.json.bind.annotation.JsonbTypeAdapter;
+
+public class Overdrawn {
+	public Long accountNumber;
+	public Long customerNumber;
+	@JsonbTypeAdapter(MoneyAdapter.class)
+	public Money balance;
+	@JsonbTypeAdapter(MoneyAdapter.class)
+	public Money overdraftLimit;
+
+	public Overdrawn() {
+	}
+
+	public Overdrawn(Long accountNumber, Long customerNumber, Money balance, Money overdraftLimit) {
+		this.accountNumber = accountNumber;
+		this.customerNumber = customerNumber;
+		this.balance = balance;
+		this.overdraftLimit = overdraftLimit;
+	}
+	
+	
+}
@@ -0,0 +1,21 @@
+package org.acme.banking.events;
+
+public class OverdrawnCodec extends EventCodec<Overdrawn> {
+
+	public OverdrawnCodec() {
+		super(Overdrawn.class, 1, 4);
+	}
+
+	@Override
+	protected void write(Overdrawn event, byte[] record) {
+		putLong(record, 0, event.accountNumber);
+		putLong(record, 1, event.customerNumber);
+		putMoney(record, 2, event.balance);
+		putMoney(record, 3, event.overdraftLimit);
+	}
+
+	@Override
+	protected Overdrawn read(byte[] record) {
+		return new Overdrawn(getLong(record, 0), getLong(record, 1), getMoney(record, 2), getMoney(record, 3));
+	}
+}
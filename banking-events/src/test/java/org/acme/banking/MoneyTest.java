@@ -0,0 +1,45 @@
+package org.acme.banking;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+  @Test
+  void testParse() {
+    assertThat(Money.parse("154.98"), equalTo(Money.ofMinor(15498)));
+    assertThat(Money.parse(" -23.8 "), equalTo(Money.ofMinor(-2380)));
+    assertThat(Money.parse("6000"), equalTo(Money.ofMinor(600000)));
+    assertThat(Money.parse(".5"), equalTo(Money.ofMinor(50)));
+    assertThat(Money.parse("12.3400"), equalTo(Money.ofMinor(1234)));
+
+    assertThrows(InvalidAmountException.class, () -> Money.parse("12.345"));
+    assertThrows(InvalidAmountException.class, () -> Money.parse("-"));
+    assertThrows(InvalidAmountException.class, () -> Money.parse("1e3"));
+    assertThrows(InvalidAmountException.class, () -> Money.parse("92233720368547758.08"));
+  }
+
+  @Test
+  void testArithmetic() {
+    Money balance = Money.parse("3499.12");
+
+    assertThat(balance.minus(Money.parse("345.15")), equalTo(Money.parse("3153.97")));
+    assertThat(balance.plus(Money.parse("-3500.00")).isNegative(), equalTo(true));
+    assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+  }
+
+  @Test
+  void testBigDecimalRoundTrip() {
+    Money amount = Money.of(new BigDecimal("-200.5"));
+
+    assertThat(amount.toBigDecimal(), equalTo(new BigDecimal("-200.50")));
+    assertThat(amount.toString(), equalTo("-200.50"));
+    assertThat(Money.ofMinor(-5).toString(), equalTo("-0.05"));
+    assertThrows(InvalidAmountException.class, () -> Money.of(new BigDecimal("0.001")));
+    assertThrows(InvalidAmountException.class, () -> Money.of(new BigDecimal("92233720368547758.08")));
+  }
+}
@@ -0,0 +1,123 @@
+package org.acme.banking.events;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.acme.banking.Money;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+public class EventCodecTest {
+  private final OverdrawnCodec codec = new OverdrawnCodec();
+
+  @Test
+  void testRoundTrip() {
+    Overdrawn event = new Overdrawn(78790L, 444222L, Money.parse("-5584.81"), Money.parse("-200.00"));
+
+    byte[] record = codec.serialize("overdrawn", event);
+    Overdrawn decoded = codec.deserialize("overdrawn", record);
+
+    assertThat(record.length, equalTo(34));
+    assertThat(decoded.accountNumber, equalTo(78790L));
+    assertThat(decoded.customerNumber, equalTo(444222L));
+    assertThat(decoded.balance, equalTo(Money.parse("-5584.81")));
+    assertThat(decoded.overdraftLimit, equalTo(Money.parse("-200.00")));
+  }
+
+  @Test
+  void testNullFields() {
+    OverdraftLimitUpdateCodec updateCodec = new OverdraftLimitUpdateCodec();
+    OverdraftLimitUpdate event = new OverdraftLimitUpdate();
+    event.accountNumber = 123456789L;
+
+    OverdraftLimitUpdate decoded = updateCodec.deserialize("new-limit", updateCodec.serialize("new-limit", event));
+
+    assertThat(decoded.accountNumber, equalTo(123456789L));
+    assertThat(decoded.newOverdraftLimit, nullValue());
+  }
+
+  @Test
+  void testOlderRecords() {
+    byte[] record = codec.serialize("overdrawn",
+        new Overdrawn(78790L, 444222L, Money.parse("-5584.81"), Money.parse("-200.00")));
+
+    // An older writer that did not know about overdraftLimit yet
+    Overdrawn older = codec.deserialize("overdrawn", Arrays.copyOf(record, record.length - Long.BYTES));
+    assertThat(older.balance, equalTo(Money.parse("-5584.81")));
+    assertThat(older.overdraftLimit, nullValue());
+  }
+
+  @Test
+  void testNewerAndUnknownVersionsAreRejected() {
+    byte[] record = codec.serialize("overdrawn",
+        new Overdrawn(78790L, 444222L, Money.parse("-5584.81"), Money.parse("-200.00")));
+
+    // A newer writer that appended a field this reader does not know about
+    byte[] newer = Arrays.copyOf(record, record.length + Long.BYTES);
+    newer[0] = 2;
+    assertThrows(SerializationException.class, () -> codec.deserialize("overdrawn", newer));
+
+    byte[] unknown = record.clone();
+    unknown[0] = 0;
+    assertThrows(SerializationException.class, () -> codec.deserialize("overdrawn", unknown));
+
+    // No field count gives 27 bytes: 3 fields take 26 and 4 take 34
+    assertThrows(SerializationException.class,
+        () -> codec.deserialize("overdrawn", Arrays.copyOf(record, record.length - Long.BYTES + 1)));
+  }
+
+  @Test
+  void testMoreThanEightFields() {
+    WideCodec wideCodec = new WideCodec();
+    Long[] fields = new Long[10];
+    for (int i = 0; i < fields.length; i++) {
+      fields[i] = i % 3 == 0 ? null : (long) -i;
+    }
+
+    byte[] record = wideCodec.serialize("wide", fields);
+    Long[] decoded = wideCodec.deserialize("wide", record);
+
+    // A two byte null mask
+    assertThat(record.length, equalTo(1 + 2 + 10 * Long.BYTES));
+    assertThat(decoded, equalTo(fields));
+  }
+
+  private static class WideCodec extends EventCodec<Long[]> {
+    WideCodec() {
+      super(Long[].class, 1, 10);
+    }
+
+    @Override
+    protected void write(Long[] event, byte[] record) {
+      for (int i = 0; i < event.length; i++) {
+        putLong(record, i, event[i]);
+      }
+    }
+
+    @Override
+    protected Long[] read(byte[] record) {
+      Long[] event = new Long[10];
+      for (int i = 0; i < event.length; i++) {
+        event[i] = getLong(record, i);
+      }
+      return event;
+    }
+  }
+
+  @Test
+  void testJsonRecordsStillDecode() {
+    byte[] json = "{\"accountNumber\":78790,\"balance\":-5584.81,\"customerNumber\":444222,\"overdraftLimit\":-200.00}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    Overdrawn decoded = codec.deserialize("overdrawn", json);
+
+    assertThat(decoded.accountNumber, equalTo(78790L));
+    assertThat(decoded.balance, equalTo(Money.parse("-5584.81")));
+    assertThat(decoded.overdraftLimit, equalTo(Money.parse("-200.00")));
+  }
+}
@@ -0,0 +1,69 @@
+package org.acme.banking.runtime;
+
+import java.time.Duration;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.jboss.logging.Logger;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Counts virtual threads that stay pinned to their carrier, e.g. inside a {@code synchronized} block or a
+ * JDBC driver call, using the JDK Flight Recorder {@code jdk.VirtualThreadPinned} event.
+ */
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+	private static final Logger LOGGER = Logger.getLogger(VirtualThreadPinningMonitor.class);
+
+	@ConfigProperty(name = "virtual-threads.pinning.enabled", defaultValue = "true")
+	boolean enabled;
+
+	@ConfigProperty(name = "virtual-threads.pinning.threshold", defaultValue = "20ms")
+	Duration threshold;
+
+	@Inject
+	@RegistryType(type = MetricRegistry.Type.APPLICATION)
+	MetricRegistry metricRegistry;
+
+	private RecordingStream recording;
+
+	void onStart(@Observes StartupEvent event) {
+		if (!enabled) {
+			return;
+		}
+
+		Counter pinned = metricRegistry.counter("virtualThreadPinned");
+		Histogram pinnedNanos = metricRegistry.histogram("virtualThreadPinnedNanos");
+
+		recording = new RecordingStream();
+		recording.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+		recording.onEvent("jdk.VirtualThreadPinned", pinnedEvent -> {
+			pinned.inc();
+			pinnedNanos.update(pinnedEvent.getDuration().toNanos());
+
+			if (LOGGER.isDebugEnabled() && pinnedEvent.getStackTrace() != null) {
+				RecordedFrame top = pinnedEvent.getStackTrace().getFrames().get(0);
+				LOGGER.debugf("Virtual thread pinned for %s at %s.%s", pinnedEvent.getDuration(),
+						top.getMethod().getType().getName(), top.getMethod().getName());
+			}
+		});
+		recording.startAsync();
+	}
+
+	void onStop(@Observes ShutdownEvent event) {
+		if (recording != null) {
+			recording.close();
+		}
+	}
+}
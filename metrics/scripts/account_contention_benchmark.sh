@@ -0,0 +1,65 @@
+#!/bin/bash
+
+###
+### Compare deposit throughput when every request targets one account
+### with the same load spread over distinct accounts. Requests on one
+### account are serialized, so the distinct-account run should scale
+### with the number of concurrent clients.
+###
+
+ACCOUNT_URL=${1}
+num_requests=${2:-500}
+num_clients=${3:-8}
+
+# Bash method to deposit funds to the specified account
+# a specified number of times
+
+function put_deposit() {
+# Account to deposit to
+   account=$1
+
+# Number of times to deposit
+   num_deposits=$2
+
+   count=0
+
+   while (( count++ < $num_deposits )); do
+     curl -s -o /dev/null \
+        -H "Content-Type:application/json" \
+        -X PUT \
+        -d "1.00" \
+        $ACCOUNT_URL/accounts/$account/deposit
+   done
+}
+
+function run_clients() {
+   start=$(date +%s%N)
+   for account in "$@"; do
+     put_deposit $account $num_requests &
+   done
+   wait
+   end=$(date +%s%N)
+
+   echo "$(( $# * num_requests * 1000000000 / (end - start) )) deposits/sec"
+}
+
+if [ "" == "${ACCOUNT_URL}" ]
+then
+    # Get the account service URL from minikube
+    export ACCOUNT_URL=`minikube service --url account-service`
+fi
+
+same_account=()
+distinct_accounts=()
+accounts=(123456789 111222333 444666 87878787 990880221 987654321 5465 78790)
+
+for (( i = 0; i < num_clients; i++ )); do
+  same_account+=(444666)
+  distinct_accounts+=(${accounts[$(( i % ${#accounts[@]} ))]})
+done
+
+echo "Single account, $num_clients clients:"
+run_clients "${same_account[@]}"
+
+echo "Distinct accounts, $num_clients clients:"
+run_clients "${distinct_accounts[@]}"
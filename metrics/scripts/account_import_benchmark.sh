@@ -0,0 +1,48 @@
+#!/bin/bash
+
+###
+### Measure POST /accounts/import throughput. Generates a CSV of fresh
+### accounts, one row in a hundred repeating an account number from
+### import.sql, imports it and checks the reported rowsPerSecond against
+### the 100000 rows/s target. Run it against the PostgreSQL deployment:
+### other databases use the batched-insert fallback instead of COPY.
+###
+### Account numbers start at 3000000000 + 10000 x the current epoch second, so
+### repeated runs do not collide with each other or with import.sql.
+###
+
+ACCOUNT_URL=${1}
+rows=${2:-1000000}
+target=${3:-100000}
+
+if [ "" == "${ACCOUNT_URL}" ]
+then
+    # Get the account service URL from minikube
+    export ACCOUNT_URL=`minikube service --url account-service`
+fi
+
+CSV=$(mktemp)
+trap "rm -f $CSV" EXIT
+
+first=$((3000000000 + $(date +%s) * 10000))
+awk -v rows=$rows -v first=$first 'BEGIN {
+  print "accountNumber,customerName,customerNumber,balance,overdraftLimit"
+  for (i = 1; i <= rows; i++) {
+    number = (i % 100 == 0) ? 123456789 : first + i
+    printf "%.0f,Import Benchmark %d,%d,%d.%02d,-100.00\n", number, i, 4000000000 + i % 50000, i % 5000, i % 100
+  }
+}' > $CSV
+
+echo "Importing $rows rows ($(du -h $CSV | cut -f1))"
+report=$(curl -s -H "Content-Type: text/csv" --data-binary @$CSV $ACCOUNT_URL/accounts/import)
+
+imported=$(echo "$report" | grep -o '"imported":[0-9]*' | cut -d: -f2)
+rejected=$(echo "$report" | grep -o '"rejected":[0-9]*' | cut -d: -f2)
+rate=$(echo "$report" | grep -o '"rowsPerSecond":[0-9]*' | cut -d: -f2)
+echo "Imported $imported, rejected $rejected, $rate rows/s"
+
+if [ -z "$rate" ] || (( rate < target ))
+then
+    echo "Below the target of $target rows/s"
+    exit 1
+fi
@@ -1,13 +1,14 @@
 #!/bin/bash
 
 ###
-### Cause TransactionService BulkheadExceptions and
+### Cause TransactionService concurrency limit rejections and
 ### CircuitBreaker-related exceptions.
 ###
 
 TRANSACTION_URL=${1}
 num_deposit_bulkhead=${2:-100}
 num_deposit_circuit_breaker=${3:-200}
+parallel=${4:-50}
 
 # Bash method to deposit random funds to the specified URL
 # a specified number of times
@@ -37,15 +38,16 @@ then
     export TRANSACTION_URL=`minikube service --url transaction-service`
 fi
 
-# Deposit funds (default) 200 times to the MicroProfile REST Client api endpoint
-# Run the first 100 in the background to cause a number of
-# BulkheadExceptions (more than one simultaneous request)
+# Deposit funds (default) 100 times from each of (default) 50 parallel
+# loops to the MicroProfile REST Client api endpoint, as overload_bulkhead.sh
+# does, to cause concurrency limit rejections (BulkheadExceptions)
 
-post_deposit $TRANSACTION_URL/transactions/api/444666 $num_deposit_bulkhead &
-post_deposit $TRANSACTION_URL/transactions/api/444666 $num_deposit_bulkhead &
+for (( i = 0; i < parallel; i++ )); do
+  post_deposit $TRANSACTION_URL/transactions/api/444666 $num_deposit_bulkhead &
+done
 
 # Wait for the background processes to stop. This ends forcing the
-# BulkheadException failures
+# concurrency limit rejections
 
 wait
 
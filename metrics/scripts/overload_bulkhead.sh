@@ -1,12 +1,14 @@
 #!/bin/bash
 
 ###
-### Cause TransactionService BulkheadExceptions. Not 100% gauranted,
-### but likely to cause them.
+### Push the TransactionService api endpoint past its adaptive
+### concurrency limit, which rejects the excess with 429. The limit
+### adapts to account-service latency, so rejections depend on load.
 ###
 
 TRANSACTION_URL=${1:-"http://localhost:8088"}
 num_requests=${2:-100}
+parallel=${3:-50}
 
 # Bash method to deposit random funds to the specified URL
 # a specified number of times
@@ -30,13 +32,12 @@ function post_deposit() {
    echo
 }
 
-# Deposit funds (default) 200 times to the MicroProfile REST Client
-# api endpoint
-# Run the first 100 in the background to cause a number of
-# BulkheadExceptions (more than one simultaneous request)
+# Deposit funds (default) 100 times from each of (default) 50 parallel
+# loops to the MicroProfile REST Client api endpoint
 
-post_deposit $TRANSACTION_URL/transactions/api/444666 $num_requests &
-post_deposit $TRANSACTION_URL/transactions/api/444666 $num_requests &
+for (( i = 0; i < parallel; i++ )); do
+  post_deposit $TRANSACTION_URL/transactions/api/444666 $num_requests &
+done
 
 # Wait for the background processes to stop.
 
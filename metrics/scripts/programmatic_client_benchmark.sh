@@ -0,0 +1,48 @@
+#!/bin/bash
+
+###
+### Compare the request rate of the /transactions/api/* endpoints with
+### a programmatic REST client built per request and with the shared,
+### pooled clients from AccountClients. Requires wrk. The
+### transaction-service deployment is restarted with
+### ACCOUNT_CLIENT_CACHED set for each run.
+###
+
+TRANSACTION_URL=${1}
+duration=${2:-30s}
+connections=${3:-200}
+
+if [ "" == "${TRANSACTION_URL}" ]
+then
+    # Get the transaction service URL from minikube
+    export TRANSACTION_URL=`minikube service --url transaction-service`
+fi
+
+# wrk script posting a random deposit amount
+WRK_SCRIPT=$(mktemp)
+cat > $WRK_SCRIPT <<'LUA'
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/json"
+request = function()
+  return wrk.format(nil, nil, nil, tostring(math.random(1, 1000)))
+end
+LUA
+
+ulimit -n 65536
+
+for cached in false true
+do
+  echo "******* SHARED CLIENTS: $cached ******"
+  kubectl set env deployment/transaction-service ACCOUNT_CLIENT_CACHED=$cached
+  kubectl rollout status deployment/transaction-service
+
+  for endpoint in api api/async
+  do
+    echo "--- /transactions/$endpoint ---"
+    wrk -t8 -c$connections -d$duration --latency -s $WRK_SCRIPT $TRANSACTION_URL/transactions/$endpoint/444666
+  done
+
+  curl -s $TRANSACTION_URL/q/metrics | grep -E "^(application_accountClient|base_thread_count|base_cpu_processCpuLoad)"
+done
+
+rm $WRK_SCRIPT
@@ -0,0 +1,46 @@
+#!/bin/bash
+
+###
+### Compare the blocking /accounts endpoints with the reactive
+### /reactive/accounts endpoints at 1k, 5k and 10k concurrent
+### connections, for account reads and for deposits. Requires wrk
+### and an account-service built with the reactive Maven profile.
+###
+
+ACCOUNT_URL=${1}
+duration=${2:-30s}
+threads=${3:-8}
+
+if [ "" == "${ACCOUNT_URL}" ]
+then
+    # Get the account service URL from minikube
+    export ACCOUNT_URL=`minikube service --url account-service`
+fi
+
+# wrk script depositing 1.00; every deposit is a ledger posting to the same account
+WRK_SCRIPT=$(mktemp)
+cat > $WRK_SCRIPT <<'LUA'
+wrk.method = "PUT"
+wrk.headers["Content-Type"] = "application/json"
+wrk.body = "1.00"
+LUA
+
+# Raise the open file limit so wrk can hold the connections
+ulimit -n 65536
+
+for connections in 1000 5000 10000
+do
+  echo "******* BLOCKING, $connections CONNECTIONS ******"
+  wrk -t$threads -c$connections -d$duration --latency $ACCOUNT_URL/accounts/444666
+
+  echo "******* REACTIVE, $connections CONNECTIONS ******"
+  wrk -t$threads -c$connections -d$duration --latency $ACCOUNT_URL/reactive/accounts/444666
+
+  echo "******* BLOCKING DEPOSITS, $connections CONNECTIONS ******"
+  wrk -t$threads -c$connections -d$duration --latency -s $WRK_SCRIPT $ACCOUNT_URL/accounts/444666/deposit
+
+  echo "******* REACTIVE DEPOSITS, $connections CONNECTIONS ******"
+  wrk -t$threads -c$connections -d$duration --latency -s $WRK_SCRIPT $ACCOUNT_URL/reactive/accounts/444666/deposit
+done
+
+rm $WRK_SCRIPT
@@ -0,0 +1,43 @@
+#!/bin/bash
+
+###
+### Compare throughput and memory of the blocking deposit endpoint
+### with virtual threads enabled and disabled. Requires wrk. The
+### transaction-service deployment is restarted with
+### QUARKUS_VIRTUAL_THREADS_ENABLED set for each run.
+###
+
+TRANSACTION_URL=${1}
+duration=${2:-30s}
+connections=${3:-2000}
+
+if [ "" == "${TRANSACTION_URL}" ]
+then
+    # Get the transaction service URL from minikube
+    export TRANSACTION_URL=`minikube service --url transaction-service`
+fi
+
+# wrk script posting a random deposit amount
+WRK_SCRIPT=$(mktemp)
+cat > $WRK_SCRIPT <<'LUA'
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/json"
+request = function()
+  return wrk.format(nil, nil, nil, tostring(math.random(1, 1000)))
+end
+LUA
+
+ulimit -n 65536
+
+for enabled in false true
+do
+  echo "******* VIRTUAL THREADS ENABLED: $enabled ******"
+  kubectl set env deployment/transaction-service QUARKUS_VIRTUAL_THREADS_ENABLED=$enabled
+  kubectl rollout status deployment/transaction-service
+
+  wrk -t8 -c$connections -d$duration --latency -s $WRK_SCRIPT $TRANSACTION_URL/transactions/444666
+
+  curl -s $TRANSACTION_URL/q/metrics | grep -E "^(base_memory_usedHeap_bytes|base_thread_count|application_virtualThreadPinned_total)"
+done
+
+rm $WRK_SCRIPT
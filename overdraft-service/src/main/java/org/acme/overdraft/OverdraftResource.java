@@ -6,8 +6,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import org.acme.overdraft.events.OverdraftLimitUpdate;
-import org.acme.overdraft.events.Overdrawn;
+import org.acme.banking.InvalidAmountException;
+import org.acme.banking.Money;
+import org.acme.banking.events.OverdraftLimitUpdate;
+import org.acme.banking.events.Overdrawn;
 import org.acme.overdraft.model.AccountOverdraft;
 import org.acme.overdraft.model.CustomerOverdraft;
 import org.apache.kafka.common.header.internals.RecordHeaders;
@@ -29,6 +31,7 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.MediaType;
 
 public class OverdraftResource {
@@ -58,7 +61,8 @@ public class OverdraftResource {
 			customerOverdraft.accountOverdrafts.put(overdrawnPayload.accountNumber, accountOverdraft);
 		}
 		customerOverdraft.totalOverdrawnEvents++;
-		accountOverdraft.currentOverdraft = overdrawnPayload.overdraftLimit;
+		accountOverdraft.currentOverdraft = overdrawnPayload.overdraftLimit == null ? null
+				: overdrawnPayload.overdraftLimit.toBigDecimal();
 		accountOverdraft.numberOverdrawnEvents++;
 
 		RecordHeaders headers = new RecordHeaders();
@@ -95,7 +99,11 @@ public class OverdraftResource {
 	public void updateAccountOverdraft(@PathParam("accountNumber") Long accountNumber, BigDecimal amount) {
 		OverdraftLimitUpdate updateEvent = new OverdraftLimitUpdate();
 		updateEvent.accountNumber = accountNumber;
-		updateEvent.newOverdraftLimit = amount;
+		try {
+			updateEvent.newOverdraftLimit = Money.of(amount);
+		} catch (InvalidAmountException e) {
+			throw new WebApplicationException(e.getMessage(), 400);
+		}
 
 		emitter.send(updateEvent);
 	}
@@ -1,10 +1,8 @@
 package org.acme.overdraft;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-
-import org.acme.overdraft.events.AccountFee;
-import org.acme.overdraft.events.Overdrawn;
+import org.acme.banking.Money;
+import org.acme.banking.events.AccountFee;
+import org.acme.banking.events.Overdrawn;
 import org.acme.overdraft.model.CustomerOverdraft;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -27,8 +25,7 @@ public class ProcessOverdraftFee {
 		return message.withPayload(feeEvent);
 	}
 
-	private BigDecimal determineFee(BigDecimal overdraftLimit, int customerOverdrawnTimes, int accountOverdrawnTimes) {
-		return new BigDecimal((5 * accountOverdrawnTimes) + (10 * customerOverdrawnTimes)).setScale(2,
-				RoundingMode.HALF_UP);
+	private Money determineFee(Money overdraftLimit, int customerOverdrawnTimes, int accountOverdrawnTimes) {
+		return Money.ofMinor(((5L * accountOverdrawnTimes) + (10L * customerOverdrawnTimes)) * 100);
 	}
 }
@@ -1,8 +0,0 @@
-package org.acme.overdraft.events;
-
-import java.math.BigDecimal;
-
-public class AccountFee {
-	public Long accountNumber;
-	public BigDecimal overdraftFee;
-}
@@ -1,8 +0,0 @@
-package org.acme.overdraft.events;
-
-import java.math.BigDecimal;
-
-public class OverdraftLimitUpdate {
-	public Long accountNumber;
-	public BigDecimal newOverdraftLimit;
-}
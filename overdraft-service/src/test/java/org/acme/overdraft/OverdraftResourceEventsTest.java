@@ -10,9 +10,10 @@ import io.smallrye.reactive.messaging.memory.InMemorySink;
 import io.smallrye.reactive.messaging.memory.InMemorySource;
 import jakarta.enterprise.inject.Any;
 
-import org.acme.overdraft.events.AccountFee;
-import org.acme.overdraft.events.OverdraftLimitUpdate;
-import org.acme.overdraft.events.Overdrawn;
+import org.acme.banking.Money;
+import org.acme.banking.events.AccountFee;
+import org.acme.banking.events.OverdraftLimitUpdate;
+import org.acme.banking.events.Overdrawn;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.junit.jupiter.api.Test;
 
@@ -20,7 +21,6 @@ import org.junit.jupiter.api.Test;
 
 import javax.inject.Inject;
 
-import java.math.BigDecimal;
 import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
@@ -41,7 +41,7 @@ public class OverdraftResourceEventsTest {
     InMemorySource<Overdrawn> overdrawnSource = connector.source("account-overdrawn");
     InMemorySink<AccountFee> overdraftSink = connector.sink("overdraft-fee");
 
-    Overdrawn overdrawn = new Overdrawn(121212L, 212121L, new BigDecimal("-185.00"), new BigDecimal("-200.00"));
+    Overdrawn overdrawn = new Overdrawn(121212L, 212121L, Money.parse("-185.00"), Money.parse("-200.00"));
     overdrawnSource.send(overdrawn);
 
     await().atMost(3, TimeUnit.SECONDS).until(() -> overdraftSink.received().size() == 1);
@@ -52,9 +52,9 @@ public class OverdraftResourceEventsTest {
     AccountFee feePayload = overdraftFeeMessage.getPayload();
     assertThat(feePayload, notNullValue());
     assertThat(feePayload.accountNumber, equalTo(121212L));
-    assertThat(feePayload.overdraftFee, equalTo(new BigDecimal("15.00")));
+    assertThat(feePayload.overdraftFee, equalTo(Money.parse("15.00")));
 
-    overdrawn = new Overdrawn(33443344L, 656565L, new BigDecimal("-98.00"), new BigDecimal("-200.00"));
+    overdrawn = new Overdrawn(33443344L, 656565L, Money.parse("-98.00"), Money.parse("-200.00"));
     overdrawnSource.send(overdrawn);
 
     await().atMost(3, TimeUnit.SECONDS).until(() -> overdraftSink.received().size() == 2);
@@ -65,9 +65,9 @@ public class OverdraftResourceEventsTest {
     feePayload = overdraftFeeMessage.getPayload();
     assertThat(feePayload, notNullValue());
     assertThat(feePayload.accountNumber, equalTo(33443344L));
-    assertThat(feePayload.overdraftFee, equalTo(new BigDecimal("15.00")));
+    assertThat(feePayload.overdraftFee, equalTo(Money.parse("15.00")));
 
-    overdrawn = new Overdrawn(121212L, 212121L, new BigDecimal("-285.00"), new BigDecimal("-300.00"));
+    overdrawn = new Overdrawn(121212L, 212121L, Money.parse("-285.00"), Money.parse("-300.00"));
     overdrawnSource.send(overdrawn);
 
     await().atMost(3, TimeUnit.SECONDS).until(() -> overdraftSink.received().size() == 3);
@@ -78,9 +78,9 @@ public class OverdraftResourceEventsTest {
     feePayload = overdraftFeeMessage.getPayload();
     assertThat(feePayload, notNullValue());
     assertThat(feePayload.accountNumber, equalTo(121212L));
-    assertThat(feePayload.overdraftFee, equalTo(new BigDecimal("30.00")));
+    assertThat(feePayload.overdraftFee, equalTo(Money.parse("30.00")));
 
-    overdrawn = new Overdrawn(878897L, 212121L, new BigDecimal("-76.00"), new BigDecimal("-200.00"));
+    overdrawn = new Overdrawn(878897L, 212121L, Money.parse("-76.00"), Money.parse("-200.00"));
     overdrawnSource.send(overdrawn);
 
     await().atMost(3, TimeUnit.SECONDS).until(() -> overdraftSink.received().size() == 4);
@@ -91,7 +91,7 @@ public class OverdraftResourceEventsTest {
     feePayload = overdraftFeeMessage.getPayload();
     assertThat(feePayload, notNullValue());
     assertThat(feePayload.accountNumber, equalTo(878897L));
-    assertThat(feePayload.overdraftFee, equalTo(new BigDecimal("35.00")));
+    assertThat(feePayload.overdraftFee, equalTo(Money.parse("35.00")));
   }
 
   @Test
@@ -113,6 +113,6 @@ public class OverdraftResourceEventsTest {
     OverdraftLimitUpdate updatePayload = updateEventMsg.getPayload();
     assertThat(updatePayload, notNullValue());
     assertThat(updatePayload.accountNumber, equalTo(4324321L));
-    assertThat(updatePayload.newOverdraftLimit, equalTo(new BigDecimal("-550.00")));
+    assertThat(updatePayload.newOverdraftLimit, equalTo(Money.parse("-550.00")));
   }
 }
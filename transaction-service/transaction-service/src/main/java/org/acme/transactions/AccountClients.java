@@ -0,0 +1,171 @@
+package org.acme.transactions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.ConcurrentGauge;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.jboss.logging.Logger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Programmatic {@link AccountServiceProgrammatic} clients, built once per base URL and timeout
+ * profile and shared by every request, so each profile keeps one pool of keep-alive connections to
+ * account-service instead of opening and discarding one per call. Every call through a client is
+ * timed and counted while in flight, tagged with the client's profile; with the pool sized by
+ * {@code account.client.pool-size}, the in-flight gauge is the number of leased connections.
+ */
+@ApplicationScoped
+public class AccountClients {
+
+	private static final Logger LOGGER = Logger.getLogger(AccountClients.class);
+
+	public record Profile(String baseUrl, Duration connectTimeout, Duration readTimeout) {
+		String tag() {
+			return baseUrl + "," + connectTimeout.toMillis() + "ms," + readTimeout.toMillis() + "ms";
+		}
+	}
+
+	// Only for comparing against the client-per-request behaviour, see metrics/scripts/programmatic_client_benchmark.sh
+	@ConfigProperty(name = "account.client.cached", defaultValue = "true")
+	boolean cached;
+
+	@ConfigProperty(name = "account.client.pool-size", defaultValue = "50")
+	int poolSize;
+
+	@ConfigProperty(name = "account.client.connection-ttl", defaultValue = "60s")
+	Duration connectionTtl;
+
+	@Inject
+	@RegistryType(type = MetricRegistry.Type.APPLICATION)
+	MetricRegistry metricRegistry;
+
+	private final Map<Profile, AccountServiceProgrammatic> clients = new ConcurrentHashMap<>();
+
+	public AccountServiceProgrammatic get(Profile profile) {
+		if (!cached) {
+			return build(profile);
+		}
+		return clients.computeIfAbsent(profile, this::build);
+	}
+
+	@Gauge(name = "accountClients", unit = MetricUnits.NONE, absolute = true, description = "Programmatic account-service clients built and pooled")
+	public long getClientCount() {
+		return clients.size();
+	}
+
+	@Gauge(name = "accountClientPoolSize", unit = MetricUnits.NONE, absolute = true, description = "Connections each programmatic account-service client pools")
+	public long getPoolSize() {
+		return poolSize;
+	}
+
+	@PreDestroy
+	void close() {
+		for (AccountServiceProgrammatic client : clients.values()) {
+			try {
+				((Closeable) client).close();
+			} catch (IOException | RuntimeException e) {
+				LOGGER.warn("Could not close account-service client", e);
+			}
+		}
+		clients.clear();
+	}
+
+	private AccountServiceProgrammatic build(Profile profile) {
+		URL baseUrl;
+		try {
+			baseUrl = new URL(profile.baseUrl());
+		} catch (MalformedURLException e) {
+			throw new IllegalArgumentException("Invalid account-service URL " + profile.baseUrl(), e);
+		}
+
+		// Every connection goes to the one account-service host, so the route may use the whole pool
+		AccountServiceProgrammatic client = RestClientBuilder.newBuilder().baseUrl(baseUrl)
+				.connectTimeout(profile.connectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+				.readTimeout(profile.readTimeout().toMillis(), TimeUnit.MILLISECONDS)
+				.property("resteasy.connectionPoolSize", poolSize)
+				.property("resteasy.maxPooledPerRoute", poolSize)
+				.property("resteasy.connectionTTL",
+						Arrays.asList(connectionTtl.toMillis(), TimeUnit.MILLISECONDS).toArray())
+				.build(AccountServiceProgrammatic.class);
+		if (!cached) {
+			return client;
+		}
+		return measured(client, profile);
+	}
+
+	private AccountServiceProgrammatic measured(AccountServiceProgrammatic client, Profile profile) {
+		Tag tag = new Tag("client", profile.tag());
+		return new MeasuredClient(client, metricRegistry.timer("accountClientRequests", tag),
+				metricRegistry.concurrentGauge("accountClientInFlight", tag));
+	}
+
+	private record MeasuredClient(AccountServiceProgrammatic client, Timer timer, ConcurrentGauge inFlight)
+			implements AccountServiceProgrammatic, Closeable {
+
+		@Override
+		public BigDecimal getBalance(Long accountNumber) {
+			long started = start();
+			try {
+				return client.getBalance(accountNumber);
+			} finally {
+				end(started);
+			}
+		}
+
+		@Override
+		public void transact(Long accountNumber, BigDecimal amount) {
+			long started = start();
+			try {
+				client.transact(accountNumber, amount);
+			} finally {
+				end(started);
+			}
+		}
+
+		@Override
+		public CompletionStage<Void> transactAsync(Long accountNumber, BigDecimal amount) {
+			long started = start();
+			try {
+				return client.transactAsync(accountNumber, amount).whenComplete((value, failure) -> end(started));
+			} catch (RuntimeException e) {
+				end(started);
+				throw e;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			((Closeable) client).close();
+		}
+
+		private long start() {
+			inFlight.inc();
+			return System.nanoTime();
+		}
+
+		private void end(long started) {
+			inFlight.dec();
+			timer.update(Duration.ofNanos(System.nanoTime() - started));
+		}
+	}
+}
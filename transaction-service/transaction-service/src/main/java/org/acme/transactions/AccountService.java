@@ -27,8 +27,10 @@ import jakarta.ws.rs.core.MediaType;
 @RegisterProvider(AccountExceptionMapper.class)
 @Produces(MediaType.APPLICATION_JSON)
 public interface AccountService {
+	// Matches the @Timeout on TransactionResource.getBalance, so account-service can shed the call when it cannot finish in time
 	@GET
 	@Path("/{accountNumber}/balance")
+	@ClientHeaderParam(name = "Request-Timeout", value = "100")
 	BigDecimal getBalance(@PathParam("accountNumber") Long accountNumber);
 
 	@GET
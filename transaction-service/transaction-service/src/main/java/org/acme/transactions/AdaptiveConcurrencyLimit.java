@@ -0,0 +1,27 @@
+package org.acme.transactions;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+/**
+ * Limits the concurrent calls of the annotated method to a {@link VegasLimit} that follows the
+ * method's latency: it grows while latency stays near the lowest seen and shrinks as calls start
+ * to queue. Calls over the limit fail at once with a {@code BulkheadException}, so the method's
+ * existing bulkhead fallback applies.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface AdaptiveConcurrencyLimit {
+
+	@Nonbinding
+	int initialLimit() default 10;
+
+	@Nonbinding
+	int maxLimit() default 200;
+}
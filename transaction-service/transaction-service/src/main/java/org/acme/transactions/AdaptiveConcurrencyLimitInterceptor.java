@@ -0,0 +1,90 @@
+package org.acme.transactions;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.WebApplicationException;
+
+@AdaptiveConcurrencyLimit
+@Interceptor
+// After the fault tolerance interceptor, so a rejection reaches the method's @Fallback
+@Priority(Interceptor.Priority.PLATFORM_AFTER + 100)
+public class AdaptiveConcurrencyLimitInterceptor {
+
+	@Inject
+	@RegistryType(type = MetricRegistry.Type.APPLICATION)
+	MetricRegistry metricRegistry;
+
+	private final Map<Method, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	private record Endpoint(String name, VegasLimit limit, AtomicInteger inFlight, Counter rejected) {
+	}
+
+	@AroundInvoke
+	Object limit(InvocationContext context) throws Exception {
+		Endpoint endpoint = endpoints.computeIfAbsent(context.getMethod(), this::endpoint);
+
+		int inFlight = endpoint.inFlight().incrementAndGet();
+		if (inFlight > endpoint.limit().limit()) {
+			endpoint.inFlight().decrementAndGet();
+			endpoint.rejected().inc();
+			throw new BulkheadException(endpoint.name() + " is at its concurrency limit of " + endpoint.limit().limit());
+		}
+
+		long started = System.nanoTime();
+		Object result;
+		try {
+			result = context.proceed();
+		} catch (Exception e) {
+			complete(endpoint, started, inFlight, e);
+			throw e;
+		}
+		if (result instanceof CompletionStage<?> stage) {
+			return stage.whenComplete((value, failure) -> complete(endpoint, started, inFlight, failure));
+		}
+		complete(endpoint, started, inFlight, null);
+		return result;
+	}
+
+	private void complete(Endpoint endpoint, long started, int inFlight, Throwable failure) {
+		endpoint.inFlight().decrementAndGet();
+		endpoint.limit().update(System.nanoTime() - started, inFlight, isOverload(failure));
+	}
+
+	// Client errors say nothing about account-service being overloaded
+	private static boolean isOverload(Throwable failure) {
+		if (failure == null) {
+			return false;
+		}
+		return !(failure instanceof WebApplicationException e && e.getResponse().getStatus() < 500);
+	}
+
+	private Endpoint endpoint(Method method) {
+		AdaptiveConcurrencyLimit settings = method.getAnnotation(AdaptiveConcurrencyLimit.class);
+		if (settings == null) {
+			settings = method.getDeclaringClass().getAnnotation(AdaptiveConcurrencyLimit.class);
+		}
+		String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+		Endpoint endpoint = new Endpoint(name, new VegasLimit(settings.initialLimit(), settings.maxLimit()),
+				new AtomicInteger(), metricRegistry.counter("concurrencyLimitRejected", new Tag("endpoint", name)));
+
+		Tag tag = new Tag("endpoint", name);
+		metricRegistry.gauge("concurrencyLimit", endpoint.limit()::limit, tag);
+		metricRegistry.gauge("concurrencyInFlight", endpoint.inFlight()::get, tag);
+		return endpoint;
+	}
+}
@@ -0,0 +1,105 @@
+package org.acme.transactions;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.metrics.annotation.Metric;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Coalesces concurrent balance lookups of the same account into one {@link AccountService} call:
+ * the first caller makes the call and everyone asking for the same balance while it is in flight
+ * waits for and shares its result, or its failure. Nothing is kept once the call returns, so a
+ * lookup never sees a balance older than one that was requested after it arrived.
+ */
+@ApplicationScoped
+public class BalanceLookups {
+
+	// The secured lookup depends on the caller's token, so only callers presenting the same one share a call
+	private record Key(Long accountNumber, boolean secure, String authorization) {
+	}
+
+	@Inject
+	@RestClient
+	AccountService accountService;
+
+	@Inject
+	HedgedCalls hedgedCalls;
+
+	@Inject
+	@Metric(name = "balanceLookups", absolute = true, description = "Balance lookups asked of account-service")
+	Counter lookups;
+
+	@Inject
+	@Metric(name = "balanceLookupsCoalesced", absolute = true, description = "Balance lookups answered by another caller's in-flight account-service call")
+	Counter coalesced;
+
+	private final Map<Key, CompletableFuture<BigDecimal>> inFlight = new ConcurrentHashMap<>();
+
+	public BigDecimal getBalance(Long accountNumber) {
+		return lookup(new Key(accountNumber, false, null),
+				() -> hedgedCalls.call(() -> accountService.getBalance(accountNumber)));
+	}
+
+	// Not hedged, the call needs the caller's propagated headers
+	public BigDecimal getBalanceSecure(Long accountNumber, String authorization) {
+		return lookup(new Key(accountNumber, true, authorization), () -> accountService.getBalanceSecure(accountNumber));
+	}
+
+	@Gauge(name = "balanceLookupsCoalescingRatio", unit = MetricUnits.NONE, absolute = true, description = "Share of balance lookups that did not need their own account-service call")
+	public double getCoalescingRatio() {
+		long total = lookups.getCount();
+		return total == 0 ? 0 : (double) coalesced.getCount() / total;
+	}
+
+	private BigDecimal lookup(Key key, Supplier<BigDecimal> call) {
+		lookups.inc();
+		CompletableFuture<BigDecimal> mine = new CompletableFuture<>();
+		CompletableFuture<BigDecimal> leader = inFlight.putIfAbsent(key, mine);
+		if (leader != null) {
+			coalesced.inc();
+			return await(leader);
+		}
+
+		try {
+			BigDecimal balance = call.get();
+			mine.complete(balance);
+			return balance;
+		} catch (Throwable t) {
+			// Errors too, or the followers would wait on a lookup that never completes
+			mine.completeExceptionally(t);
+			throw t;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	// Waits interruptibly, so the @Timeout on the calling resource method still applies to followers
+	private static BigDecimal await(CompletableFuture<BigDecimal> leader) {
+		try {
+			return leader.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for a coalesced balance lookup");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException failure) {
+				throw failure;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package org.acme.transactions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.context.SmallRyeManagedExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Runs blocking handler bodies on virtual threads, or on the worker pool when
+ * {@code quarkus.virtual-threads.enabled=false}, propagating the request and RESTEasy contexts.
+ */
+@ApplicationScoped
+public class HandlerExecutor {
+
+	@Inject
+	@VirtualThreads
+	ExecutorService virtualThreads;
+
+	private ManagedExecutor executor;
+
+	@PostConstruct
+	void init() {
+		executor = SmallRyeManagedExecutor.builder().withExecutorService(virtualThreads).build();
+	}
+
+	@PreDestroy
+	void close() {
+		executor.shutdown();
+	}
+
+	public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+		return executor.supplyAsync(supplier);
+	}
+}
@@ -0,0 +1,236 @@
+package org.acme.transactions;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Timer;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.metrics.annotation.Metric;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Hedges idempotent account-service reads: a call that has not answered within the current 95th
+ * percentile of call latency is sent a second time, and whichever answers first successfully is
+ * used; the other call is interrupted, as are both when the caller is. Hedges are paid for from a
+ * budget that every call adds {@code balance.hedging.budget} of a hedge to, so they never add more
+ * than that share of extra calls beyond a short burst.
+ * <p>
+ * Both calls run on virtual threads without the caller's request context, so only calls that do
+ * not depend on propagated headers may be hedged.
+ */
+@ApplicationScoped
+public class HedgedCalls {
+	// A hedge costs this many credits; each call earns budget * HEDGE_COST
+	private static final long HEDGE_COST = 1000;
+
+	@ConfigProperty(name = "balance.hedging.enabled", defaultValue = "true")
+	boolean enabled;
+
+	@ConfigProperty(name = "balance.hedging.budget", defaultValue = "0.05")
+	double budget;
+
+	@ConfigProperty(name = "balance.hedging.burst", defaultValue = "10")
+	int burst;
+
+	@ConfigProperty(name = "balance.hedging.min-delay", defaultValue = "5ms")
+	Duration minDelay;
+
+	@ConfigProperty(name = "balance.hedging.min-samples", defaultValue = "100")
+	int minSamples;
+
+	@ConfigProperty(name = "balance.hedging.window", defaultValue = "1024")
+	int windowSize;
+
+	@Inject
+	@VirtualThreads
+	ExecutorService executor;
+
+	@Inject
+	@Metric(name = "balanceLookupLatency", absolute = true, description = "Latency of balance lookups, hedges included")
+	Timer latency;
+
+	@Inject
+	@Metric(name = "balanceHedges", absolute = true, description = "Balance calls sent a second time")
+	Counter hedges;
+
+	@Inject
+	@Metric(name = "balanceHedgeWins", absolute = true, description = "Hedged balance calls answered by the second call")
+	Counter hedgeWins;
+
+	@Inject
+	@Metric(name = "balanceHedgesOverBudget", absolute = true, description = "Balance calls that would have been hedged but for the budget")
+	Counter overBudget;
+
+	@Inject
+	@Metric(name = "balanceHedgedCalls", absolute = true, description = "Balance calls that could be hedged")
+	Counter calls;
+
+	private record Attempt<T>(CompletableFuture<T> result, Future<?> task, long started) {
+	}
+
+	private LatencyWindow window;
+	private final AtomicLong credits = new AtomicLong();
+
+	@PostConstruct
+	void init() {
+		window = new LatencyWindow(windowSize);
+		credits.set(burst * HEDGE_COST);
+	}
+
+	public <T> T call(Supplier<T> call) {
+		if (!enabled) {
+			return call.get();
+		}
+
+		calls.inc();
+		long budgetCap = burst * HEDGE_COST;
+		credits.getAndUpdate(c -> Math.min(budgetCap, c + (long) (budget * HEDGE_COST)));
+
+		long started = System.nanoTime();
+		long delay = hedgeDelayNanos();
+		Attempt<T> first = null;
+		Attempt<T> second = null;
+		try {
+			if (delay < 0) {
+				return timed(call);
+			}
+			first = start(call);
+			try {
+				return first.result().get(delay, TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				// Not answered within the p95, fall through to hedging
+			} catch (ExecutionException e) {
+				throw failure(e);
+			}
+
+			if (credits.getAndUpdate(c -> c >= HEDGE_COST ? c - HEDGE_COST : c) < HEDGE_COST) {
+				overBudget.inc();
+				return await(first.result());
+			}
+			hedges.inc();
+			second = start(call);
+			CompletableFuture<T> winner = firstSuccessful(first.result(), second.result());
+			T result = await(winner);
+			if (!first.result().isDone() || first.result().isCompletedExceptionally()) {
+				hedgeWins.inc();
+			}
+			return result;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for a hedged call");
+		} finally {
+			// The losing call, or both when the caller gave up, for example on its @Timeout
+			abandon(first);
+			abandon(second);
+			latency.update(Duration.ofNanos(System.nanoTime() - started));
+		}
+	}
+
+	@Gauge(name = "balanceHedgeDelay", unit = MetricUnits.MILLISECONDS, absolute = true, description = "Time after which a balance call is hedged, the p95 of recent calls")
+	public long getHedgeDelay() {
+		return Math.max(0, hedgeDelayNanos()) / 1_000_000;
+	}
+
+	@Gauge(name = "balanceHedgeRate", unit = MetricUnits.NONE, absolute = true, description = "Share of balance calls that were hedged")
+	public double getHedgeRate() {
+		long total = calls.getCount();
+		return total == 0 ? 0 : (double) hedges.getCount() / total;
+	}
+
+	// Negative until enough calls have been seen to know what slow is
+	private long hedgeDelayNanos() {
+		if (window.count() < minSamples) {
+			return -1;
+		}
+		return Math.max(minDelay.toNanos(), window.percentile(0.95));
+	}
+
+	// Runs the call on a virtual thread of its own, which abandoning it interrupts; cancelling the
+	// CompletableFuture alone would leave the call running
+	private <T> Attempt<T> start(Supplier<T> call) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		long started = System.nanoTime();
+		Future<?> task = executor.submit(() -> {
+			try {
+				result.complete(timed(call));
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+			}
+		});
+		return new Attempt<>(result, task, started);
+	}
+
+	// An interrupted call never records its latency, so the time it ran for stands in for it
+	private void abandon(Attempt<?> attempt) {
+		if (attempt == null || attempt.result().isDone()) {
+			return;
+		}
+		window.record(System.nanoTime() - attempt.started());
+		attempt.task().cancel(true);
+		attempt.result().cancel(false);
+	}
+
+	private <T> T timed(Supplier<T> call) {
+		long started = System.nanoTime();
+		T result = call.get();
+		window.record(System.nanoTime() - started);
+		return result;
+	}
+
+	// Fails only once both calls have failed, with whichever failure came last
+	private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+		CompletableFuture<T> winner = new CompletableFuture<>();
+		AtomicInteger failed = new AtomicInteger();
+		first.whenComplete((value, failure) -> {
+			if (failure == null) {
+				winner.complete(value);
+			} else if (failed.incrementAndGet() == 2) {
+				winner.completeExceptionally(failure);
+			}
+		});
+		second.whenComplete((value, failure) -> {
+			if (failure == null) {
+				winner.complete(value);
+			} else if (failed.incrementAndGet() == 2) {
+				winner.completeExceptionally(failure);
+			}
+		});
+		return winner;
+	}
+
+	private static <T> T await(CompletableFuture<T> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw failure(e);
+		}
+	}
+
+	private static RuntimeException failure(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof CompletionException && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		if (cause instanceof RuntimeException failure) {
+			return failure;
+		}
+		return new IllegalStateException(cause);
+	}
+}
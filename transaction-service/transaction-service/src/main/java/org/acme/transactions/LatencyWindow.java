@@ -0,0 +1,52 @@
+package org.acme.transactions;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the last {@code size} calls, and percentiles over them. A percentile is computed
+ * by sorting a copy of the window, at most once per {@code size / 16} new samples, so reading it on
+ * every call stays cheap.
+ */
+class LatencyWindow {
+	private final long[] samples;
+	private final int recomputeEvery;
+
+	private int next;
+	private int count;
+	private int sinceComputed;
+	private double computedFor = Double.NaN;
+	private long computed;
+
+	LatencyWindow(int size) {
+		samples = new long[size];
+		recomputeEvery = Math.max(1, size / 16);
+	}
+
+	synchronized void record(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % samples.length;
+		if (count < samples.length) {
+			count++;
+		}
+		sinceComputed++;
+	}
+
+	synchronized int count() {
+		return count;
+	}
+
+	// The latency {@code quantile} of the recorded calls took at most, or 0 before any was recorded
+	synchronized long percentile(double quantile) {
+		if (count == 0) {
+			return 0;
+		}
+		if (quantile != computedFor || sinceComputed >= recomputeEvery) {
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			computed = sorted[Math.min(count - 1, (int) Math.ceil(quantile * count) - 1)];
+			computedFor = quantile;
+			sinceComputed = 0;
+		}
+		return computed;
+	}
+}
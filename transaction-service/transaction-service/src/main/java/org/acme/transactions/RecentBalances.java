@@ -0,0 +1,180 @@
+package org.acme.transactions;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.metrics.annotation.Metric;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+import org.jboss.logging.Logger;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Balances recently fetched from account-service, kept for up to {@code balance.cache.max-age}
+ * and at most {@code balance.cache.max-size} accounts. A balance younger than
+ * {@code balance.cache.fresh-for} is answered as is; one younger than
+ * {@code balance.cache.stale-for} is answered as is while a background lookup replaces it. When
+ * account-service cannot be reached in time, {@link TransactionServiceFallbackHandler} answers with
+ * any balance still held. Every cached answer carries its age in seconds as an {@value #AGE_HEADER}
+ * header. A transaction posted through this service evicts the account's balance.
+ */
+@ApplicationScoped
+public class RecentBalances {
+	public static final String AGE_HEADER = "Age";
+
+	private static final Logger LOGGER = Logger.getLogger(RecentBalances.class);
+
+	// A null balance marks an evicted account, so lookups started before the eviction are not cached
+	private record Entry(BigDecimal balance, long fetchedAt) {
+		Duration age() {
+			return Duration.ofNanos(System.nanoTime() - fetchedAt);
+		}
+	}
+
+	@ConfigProperty(name = "balance.cache.max-size", defaultValue = "10000")
+	int maxSize;
+
+	@ConfigProperty(name = "balance.cache.fresh-for", defaultValue = "1s")
+	Duration freshFor;
+
+	@ConfigProperty(name = "balance.cache.stale-for", defaultValue = "10s")
+	Duration staleFor;
+
+	@ConfigProperty(name = "balance.cache.max-age", defaultValue = "5m")
+	Duration maxAge;
+
+	@Inject
+	BalanceLookups balanceLookups;
+
+	@Inject
+	@VirtualThreads
+	ExecutorService refreshes;
+
+	@Inject
+	@RegistryType(type = MetricRegistry.Type.APPLICATION)
+	MetricRegistry metricRegistry;
+
+	@Inject
+	@Metric(name = "balanceCacheAge", absolute = true, unit = MetricUnits.MILLISECONDS, description = "Age of the cached balances answered")
+	Histogram servedAge;
+
+	@Inject
+	@Metric(name = "balanceCacheRefreshFailures", absolute = true, description = "Background balance refreshes that failed")
+	Counter refreshFailures;
+
+	// Access-ordered, so the least recently read account is evicted first
+	private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+			return size() > maxSize;
+		}
+	};
+
+	private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * The account's balance, from the cache if it is fresh or stale enough to be refreshed in the
+	 * background, otherwise from account-service.
+	 */
+	public Response getBalance(Long accountNumber) {
+		Entry entry = entry(accountNumber);
+		if (entry != null) {
+			Duration age = entry.age();
+			if (age.compareTo(freshFor) < 0) {
+				return answer(entry, age, "fresh");
+			}
+			if (age.compareTo(staleFor) < 0) {
+				refresh(accountNumber);
+				return answer(entry, age, "stale");
+			}
+		}
+
+		metricRegistry.counter("balanceCacheMisses").inc();
+		long started = System.nanoTime();
+		BigDecimal balance = balanceLookups.getBalance(accountNumber);
+		put(accountNumber, balance, started);
+		return Response.ok(balance.toString()).build();
+	}
+
+	// The cached answer to give when account-service failed, or null if there is none
+	public Response fallback(Long accountNumber) {
+		Entry entry = entry(accountNumber);
+		return entry == null ? null : answer(entry, entry.age(), "fallback");
+	}
+
+	// After a transaction on the account, so the next read looks its balance up again
+	public void evict(Long accountNumber) {
+		synchronized (entries) {
+			entries.put(accountNumber, new Entry(null, System.nanoTime()));
+		}
+	}
+
+	@Gauge(name = "balanceCacheSize", unit = MetricUnits.NONE, absolute = true, description = "Accounts held in the balance cache, evicted ones included")
+	public long getSize() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private Entry entry(Long accountNumber) {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(accountNumber);
+		}
+		return entry == null || entry.balance() == null || entry.age().compareTo(maxAge) >= 0 ? null : entry;
+	}
+
+	// Aged from when the lookup started, and never replacing a balance looked up later
+	private void put(Long accountNumber, BigDecimal balance, long started) {
+		Entry entry = new Entry(balance, started);
+		synchronized (entries) {
+			Entry current = entries.get(accountNumber);
+			if (current == null || current.fetchedAt() - started < 0) {
+				entries.put(accountNumber, entry);
+			}
+		}
+	}
+
+	private Response answer(Entry entry, Duration age, String state) {
+		servedAge.update(age.toMillis());
+		metricRegistry.counter("balanceCacheHits", new Tag("state", state)).inc();
+		return Response.ok(entry.balance().toString()).header(AGE_HEADER, age.toSeconds()).build();
+	}
+
+	private void refresh(Long accountNumber) {
+		if (!refreshing.add(accountNumber)) {
+			return;
+		}
+		try {
+			refreshes.execute(() -> {
+				long started = System.nanoTime();
+				try {
+					put(accountNumber, balanceLookups.getBalance(accountNumber), started);
+				} catch (RuntimeException e) {
+					refreshFailures.inc();
+					LOGGER.debugf(e, "Refreshing the balance of account %d failed", accountNumber);
+				} finally {
+					refreshing.remove(accountNumber);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(accountNumber);
+		}
+	}
+}
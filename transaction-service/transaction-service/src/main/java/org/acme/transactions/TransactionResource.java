@@ -1,29 +1,26 @@
 package org.acme.transactions;
 
 import java.math.BigDecimal;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.TimeUnit;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.faulttolerance.Bulkhead;
 import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
 import org.eclipse.microprofile.faulttolerance.Fallback;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.faulttolerance.Timeout;
 import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+import org.eclipse.microprofile.metrics.ConcurrentGauge;
 import org.eclipse.microprofile.metrics.Histogram;
-import org.eclipse.microprofile.metrics.annotation.ConcurrentGauge;
 import org.eclipse.microprofile.metrics.annotation.Metric;
-import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
 
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -33,6 +30,8 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -41,16 +40,49 @@ import jakarta.ws.rs.core.Response;
 @Consumes(MediaType.APPLICATION_JSON)
 public class TransactionResource {
 
+	private static final Logger LOGGER = Logger.getLogger(TransactionResource.class);
+
 	@Inject
 	@Metric(name = "deposits", description = "Deposit histogram")
 	Histogram histogram;
+
+	// Counted inside the async task, the handler itself returns as soon as the task is dispatched
+	@Inject
+	@Metric(name = "concurrentBlockingTransactions", absolute = true, description = "Number of concurrent transactions using blocking API")
+	ConcurrentGauge concurrentBlockingTransactions;
+
 	@Inject
 	@RestClient
 	AccountService accountService;
 
+	@Inject
+	HandlerExecutor handlerExecutor;
+
+	@Inject
+	BalanceLookups balanceLookups;
+
+	@Inject
+	RecentBalances recentBalances;
+
+	@Context
+	HttpHeaders httpHeaders;
+
 	@ConfigProperty(name = "account.service", defaultValue = "http://localhost:8080")
 	String accountServiceUrl;
 
+	@ConfigProperty(name = "account.client.connect-timeout", defaultValue = "500ms")
+	Duration connectTimeout;
+
+	@ConfigProperty(name = "account.client.read-timeout", defaultValue = "1400ms")
+	Duration readTimeout;
+
+	@Inject
+	AccountClients accountClients;
+
+	private AccountServiceProgrammatic programmaticClient() {
+		return accountClients.get(new AccountClients.Profile(accountServiceUrl, connectTimeout, readTimeout));
+	}
+
 	void updateDepositHistogram(BigDecimal dollars) {
 		histogram.update(dollars.longValue());
 	}
@@ -61,7 +93,8 @@ public class TransactionResource {
 	@Produces(MediaType.APPLICATION_JSON)
 	@Consumes(MediaType.APPLICATION_JSON)
 	public Response jwtGetBalance(@PathParam("acctnumber") Long accountNumber) {
-		String balance = accountService.getBalanceSecure(accountNumber).toString();
+		String balance = balanceLookups
+				.getBalanceSecure(accountNumber, httpHeaders.getHeaderString(HttpHeaders.AUTHORIZATION)).toString();
 
 		return Response.ok(balance).build();
 	}
@@ -74,32 +107,37 @@ public class TransactionResource {
 		return getBalance(accountNumber);
 	}
 
-	@ConcurrentGauge(name = "concurrentBlockingTransactions", absolute = true, description = "Number of concurrent transactions using blocking API")
 	@POST
 	@Path("/{accountNumber}")
-	public Map<String, List<String>> newTransaction(@PathParam("accountNumber") Long accountNumber, BigDecimal amount) {
-		try {
-			updateDepositHistogram(amount);
-			return accountService.transact(accountNumber, amount);
-		} catch (Throwable t) {
-			t.printStackTrace();
-			Map<String, List<String>> response = new HashMap<>();
-			response.put("EXCEPTION - " + t.getClass(), Collections.singletonList(t.getMessage()));
-			return response;
-		}
+	public CompletionStage<Map<String, List<String>>> newTransaction(@PathParam("accountNumber") Long accountNumber,
+			BigDecimal amount) {
+		return handlerExecutor.supplyAsync(() -> {
+			concurrentBlockingTransactions.inc();
+			try {
+				updateDepositHistogram(amount);
+				return accountService.transact(accountNumber, amount);
+			} catch (Throwable t) {
+				LOGGER.errorf(t, "Transaction on account %d failed", accountNumber);
+				Map<String, List<String>> response = new HashMap<>();
+				response.put("EXCEPTION - " + t.getClass(), Collections.singletonList(t.getMessage()));
+				return response;
+			} finally {
+				concurrentBlockingTransactions.dec();
+				recentBalances.evict(accountNumber);
+			}
+		});
 	}
 
 	@POST
 	@Path("/api/{accountNumber}")
-	@Bulkhead(1)
+	@AdaptiveConcurrencyLimit
 	@Fallback(fallbackMethod = "bulkheadFallbackGetBalance", applyOn = { BulkheadException.class })
-	public Response newTransactionWithApi(@PathParam("accountNumber") Long accountNumber, BigDecimal amount)
-			throws MalformedURLException {
-		AccountServiceProgrammatic accountService = (AccountServiceProgrammatic) RestClientBuilder.newBuilder()
-				.baseUrl(new URL(accountServiceUrl)).connectTimeout(500, TimeUnit.MILLISECONDS)
-				.readTimeout(1400, TimeUnit.MILLISECONDS).build(AccountServiceProgrammatic.class);
-
-		accountService.transact(accountNumber, amount);
+	public Response newTransactionWithApi(@PathParam("accountNumber") Long accountNumber, BigDecimal amount) {
+		try {
+			programmaticClient().transact(accountNumber, amount);
+		} finally {
+			recentBalances.evict(accountNumber);
+		}
 		updateDepositHistogram(amount);
 		return Response.ok().build();
 	}
@@ -113,19 +151,16 @@ public class TransactionResource {
 	public CompletionStage<Map<String, List<String>>> newTransactionAsync(
 			@PathParam("accountNumber") Long accountNumber, BigDecimal amount) {
 		updateDepositHistogram(amount);
-		return accountService.transactAsync(accountNumber, amount);
+		return accountService.transactAsync(accountNumber, amount)
+				.whenComplete((response, failure) -> recentBalances.evict(accountNumber));
 	}
 
 	@POST
 	@Path("/api/async/{accountNumber}")
 	public CompletionStage<Void> newTransactionWithApiAsync(@PathParam("accountNumber") Long accountNumber,
-			BigDecimal amount) throws MalformedURLException {
-		AccountServiceProgrammatic accountService = (AccountServiceProgrammatic) RestClientBuilder.newBuilder()
-				.baseUrl(new URL(accountServiceUrl)).connectTimeout(500, TimeUnit.MILLISECONDS)
-				.readTimeout(1400, TimeUnit.MILLISECONDS).build(AccountServiceProgrammatic.class);
-
-		return accountService.transactAsync(accountNumber, amount);
-
+			BigDecimal amount) {
+		return programmaticClient().transactAsync(accountNumber, amount)
+				.whenComplete((response, failure) -> recentBalances.evict(accountNumber));
 	}
 
 	@GET
@@ -137,8 +172,7 @@ public class TransactionResource {
 	@Fallback(value = TransactionServiceFallbackHandler.class)
 	@Produces(MediaType.APPLICATION_JSON)
 	public Response getBalance(@PathParam("accountNumber") Long accountNumber) {
-		String balance = accountService.getBalance(accountNumber).toString();
-		return Response.ok(balance).build();
+		return recentBalances.getBalance(accountNumber);
 	}
 
 	public Response timeoutFallbackGetBalance(Long accountNumber) {
@@ -10,6 +10,7 @@ import org.eclipse.microprofile.metrics.annotation.Timed;
 import org.jboss.logging.Logger;
 
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
 public class TransactionServiceFallbackHandler implements FallbackHandler<Response> {
@@ -20,18 +21,16 @@ public class TransactionServiceFallbackHandler implements FallbackHandler<Respon
 	@RegistryType(type = MetricRegistry.Type.APPLICATION)
 	MetricRegistry metricRegistry;
 
+	@Inject
+	RecentBalances recentBalances;
+
 	@Timed(name = "fallbackHandlerTimer", displayName = "Fallback Handler Timer", description = "Time spent handling fallbacks", absolute = true, unit = MetricUnits.NANOSECONDS)
 
 	@Override
 	public Response handle(ExecutionContext context) {
 		Response response;
-		String name;
-
-		if (context.getFailure().getCause() == null) {
-			name = context.getFailure().getClass().getSimpleName();
-		} else {
-			name = context.getFailure().getCause().getClass().getSimpleName();
-		}
+		Throwable failure = context.getFailure().getCause() == null ? context.getFailure() : context.getFailure().getCause();
+		String name = failure.getClass().getSimpleName();
 
 		switch (name) {
 		case "BulkheadException":
@@ -54,10 +53,28 @@ public class TransactionServiceFallbackHandler implements FallbackHandler<Respon
 			response = Response.status(Response.Status.NOT_IMPLEMENTED).build();
 		}
 
+		// account-service could not answer, or not in time; a recent balance beats an error
+		if (accountServiceUnavailable(response.getStatus(), failure)
+				&& context.getMethod().getName().equals("getBalance")) {
+			Response cached = recentBalances.fallback((Long) context.getParameters()[0]);
+			if (cached != null) {
+				response = cached;
+			}
+		}
+
 		metricRegistry.counter("fallback", new Tag("http_status_code", "" + response.getStatus())).inc();
 
 		LOGGER.info("**********" + context.getMethod().getName() + ": " + name + "***********");
 		return response;
 	}
 
+	// Every 502, 503 and 504 above, except an answer account-service gave itself that is not a server error
+	static boolean accountServiceUnavailable(int status, Throwable failure) {
+		if (status != 502 && status != 503 && status != 504) {
+			return false;
+		}
+		return !(failure instanceof WebApplicationException exception) || exception.getResponse() == null
+				|| exception.getResponse().getStatus() >= 500;
+	}
+
 }
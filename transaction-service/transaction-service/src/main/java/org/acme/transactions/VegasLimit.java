@@ -0,0 +1,69 @@
+package org.acme.transactions;
+
+/**
+ * TCP Vegas style concurrency limit. Each completed call compares its latency with the lowest seen
+ * to estimate how many calls are queueing downstream: while hardly any are, the limit grows; once
+ * too many are, or a call fails, it shrinks. The lowest latency is re-measured every so often so the
+ * limit also follows a downstream that got slower for good.
+ */
+class VegasLimit {
+	// Samples, as a multiple of the limit, after which the no-load latency is measured afresh
+	private static final int PROBE_MULTIPLIER = 30;
+
+	private final int maxLimit;
+
+	// Written under the monitor, read without it on every call
+	private volatile double limit;
+	private long noLoadLatency;
+	private long samplesUntilProbe;
+
+	VegasLimit(int initialLimit, int maxLimit) {
+		this.maxLimit = maxLimit;
+		this.limit = Math.max(1, Math.min(initialLimit, maxLimit));
+		this.samplesUntilProbe = nextProbe();
+	}
+
+	int limit() {
+		return (int) limit;
+	}
+
+	/**
+	 * Updates the limit with a completed call that took {@code latencyNanos} while {@code inFlight}
+	 * calls, itself included, were running, and returns the new limit.
+	 */
+	synchronized int update(long latencyNanos, int inFlight, boolean failed) {
+		if (--samplesUntilProbe <= 0) {
+			noLoadLatency = 0;
+			samplesUntilProbe = nextProbe();
+		}
+		double step = Math.max(1, Math.log10(limit));
+		if (failed) {
+			limit = Math.max(1, limit - step);
+			return (int) limit;
+		}
+		// Only successful calls: a refused connection fails faster than any real answer
+		if (noLoadLatency == 0 || latencyNanos < noLoadLatency) {
+			noLoadLatency = Math.max(1, latencyNanos);
+			return (int) limit;
+		}
+		// Too little traffic to tell whether a higher limit would queue
+		if (inFlight * 2 < limit) {
+			return (int) limit;
+		}
+
+		double queued = Math.ceil(limit * (1 - (double) noLoadLatency / latencyNanos));
+		if (queued <= step) {
+			limit += 6 * step;
+		} else if (queued < 3 * step) {
+			limit += step;
+		} else if (queued > 6 * step) {
+			limit -= step;
+		}
+		limit = Math.max(1, Math.min(limit, maxLimit));
+		return (int) limit;
+	}
+
+	private long nextProbe() {
+		return PROBE_MULTIPLIER * (long) Math.max(1, limit);
+	}
+}
@@ -0,0 +1,125 @@
+package org.acme.transactions;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.metrics.MetricsRegistryImpl;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.core.Response;
+
+public class AdaptiveConcurrencyLimitTest {
+
+	@Test
+	void testRejectionIsAnsweredWith429ByTheFallback() throws Exception {
+		AdaptiveConcurrencyLimitInterceptor interceptor = new AdaptiveConcurrencyLimitInterceptor();
+		interceptor.metricRegistry = new MetricsRegistryImpl();
+		Method method = TransactionResource.class.getMethod("newTransactionWithApi", Long.class, BigDecimal.class);
+		Object[] parameters = { 444666L, BigDecimal.ONE };
+
+		// Holds the initial limit of 10 calls in flight
+		CountDownLatch inFlight = new CountDownLatch(10);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		Throwable rejection;
+		try {
+			List<Future<Object>> calls = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				calls.add(executor.submit(() -> interceptor.limit(new Invocation(method, parameters, () -> {
+					inFlight.countDown();
+					release.await();
+					return Response.ok().build();
+				}))));
+			}
+			assertThat(inFlight.await(5, TimeUnit.SECONDS), equalTo(true));
+
+			try {
+				interceptor.limit(new Invocation(method, parameters, () -> Response.ok().build()));
+				throw new AssertionError("The call over the limit was admitted");
+			} catch (BulkheadException e) {
+				rejection = e;
+			}
+
+			release.countDown();
+			for (Future<Object> call : calls) {
+				assertThat(((Response) call.get()).getStatus(), equalTo(200));
+			}
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+
+		// What the fault tolerance interceptor, which runs first, does with the rejection
+		Fallback fallback = method.getAnnotation(Fallback.class);
+		assertThat(List.of(fallback.applyOn()).stream().anyMatch(type -> type.isInstance(rejection)), equalTo(true));
+		Method fallbackMethod = TransactionResource.class.getMethod(fallback.fallbackMethod(), method.getParameterTypes());
+		Constructor<TransactionResource> constructor = TransactionResource.class.getDeclaredConstructor();
+		Object response = fallbackMethod.invoke(constructor.newInstance(), parameters);
+		assertThat(response, instanceOf(Response.class));
+		assertThat(((Response) response).getStatus(), equalTo(429));
+	}
+
+	private interface Proceed {
+		Object proceed() throws Exception;
+	}
+
+	private record Invocation(Method method, Object[] parameters, Proceed next) implements InvocationContext {
+
+		@Override
+		public Object getTarget() {
+			return null;
+		}
+
+		@Override
+		public Object getTimer() {
+			return null;
+		}
+
+		@Override
+		public Method getMethod() {
+			return method;
+		}
+
+		@Override
+		public Constructor<?> getConstructor() {
+			return null;
+		}
+
+		@Override
+		public Object[] getParameters() {
+			return parameters;
+		}
+
+		@Override
+		public void setParameters(Object[] parameters) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Map<String, Object> getContextData() {
+			return new HashMap<>();
+		}
+
+		@Override
+		public Object proceed() throws Exception {
+			return next.proceed();
+		}
+	}
+}
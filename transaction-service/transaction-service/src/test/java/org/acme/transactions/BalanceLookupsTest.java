@@ -0,0 +1,57 @@
+package org.acme.transactions;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.metrics.MetricsRegistryImpl;
+
+public class BalanceLookupsTest {
+
+	@Test
+	void testFollowersShareTheLeadersError() throws Exception {
+		CountDownLatch called = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		MetricRegistry registry = new MetricsRegistryImpl();
+		BalanceLookups balanceLookups = new BalanceLookups();
+		balanceLookups.lookups = registry.counter("balanceLookups");
+		balanceLookups.coalesced = registry.counter("balanceLookupsCoalesced");
+		balanceLookups.accountService = (AccountService) Proxy.newProxyInstance(AccountService.class.getClassLoader(),
+				new Class<?>[] { AccountService.class }, (proxy, method, args) -> {
+					called.countDown();
+					release.await();
+					throw new StackOverflowError();
+				});
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<BigDecimal> leader = executor.submit(() -> balanceLookups.getBalanceSecure(444666L, "Bearer token"));
+			called.await();
+			Future<BigDecimal> follower = executor.submit(() -> balanceLookups.getBalanceSecure(444666L, "Bearer token"));
+			while (balanceLookups.coalesced.getCount() == 0) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+
+			ExecutionException failure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+			assertThat(failure.getCause(), instanceOf(StackOverflowError.class));
+			// A follower left waiting on a lookup that never completes would time out here
+			failure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+			assertThat(failure.getCause(), instanceOf(StackOverflowError.class));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package org.acme.transactions;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.metrics.MetricsRegistryImpl;
+
+public class HedgedCallsTest {
+	private static final long SLOW = TimeUnit.SECONDS.toMillis(10);
+
+	private HedgedCalls hedgedCalls;
+
+	@BeforeEach
+	void setUp() {
+		MetricRegistry registry = new MetricsRegistryImpl();
+		hedgedCalls = new HedgedCalls();
+		hedgedCalls.enabled = true;
+		hedgedCalls.budget = 0;
+		hedgedCalls.burst = 2;
+		hedgedCalls.minDelay = Duration.ofMillis(20);
+		hedgedCalls.minSamples = 10;
+		hedgedCalls.windowSize = 100;
+		hedgedCalls.executor = Executors.newVirtualThreadPerTaskExecutor();
+		hedgedCalls.latency = registry.timer("balanceLookupLatency");
+		hedgedCalls.hedges = registry.counter("balanceHedges");
+		hedgedCalls.hedgeWins = registry.counter("balanceHedgeWins");
+		hedgedCalls.overBudget = registry.counter("balanceHedgesOverBudget");
+		hedgedCalls.calls = registry.counter("balanceHedgedCalls");
+		hedgedCalls.init();
+
+		// Fast calls, so the p95 stays below the 20 ms minimum delay
+		for (int i = 0; i < 10; i++) {
+			hedgedCalls.call(() -> "warm-up");
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		hedgedCalls.executor.shutdownNow();
+	}
+
+	@Test
+	void testHedgeAfterP95AndInterruptTheLoser() throws InterruptedException {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		AtomicInteger attempts = new AtomicInteger();
+
+		long started = System.nanoTime();
+		String result = hedgedCalls.call(() -> attempts.incrementAndGet() == 1 ? sleep(SLOW, "first", interrupted) : "second");
+
+		assertThat(result, equalTo("second"));
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), lessThan(SLOW));
+		assertThat(hedgedCalls.hedges.getCount(), equalTo(1L));
+		assertThat(hedgedCalls.hedgeWins.getCount(), equalTo(1L));
+		assertThat(interrupted.await(5, TimeUnit.SECONDS), equalTo(true));
+	}
+
+	@Test
+	void testFirstSuccessWins() throws InterruptedException {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = hedgedCalls.call(() -> attempts.incrementAndGet() == 1 ? sleep(50, "first", null)
+				: sleep(SLOW, "second", interrupted));
+
+		assertThat(result, equalTo("first"));
+		assertThat(hedgedCalls.hedges.getCount(), equalTo(1L));
+		assertThat(hedgedCalls.hedgeWins.getCount(), equalTo(0L));
+		assertThat(interrupted.await(5, TimeUnit.SECONDS), equalTo(true));
+	}
+
+	@Test
+	void testBudgetStopsHedging() {
+		// A burst of two hedges and no budget earned by the calls
+		for (int i = 0; i < 3; i++) {
+			AtomicInteger attempts = new AtomicInteger();
+			assertThat(hedgedCalls.call(() -> attempts.incrementAndGet() == 1 ? sleep(50, "first", null) : "second"),
+					equalTo(i < 2 ? "second" : "first"));
+			assertThat(attempts.get(), equalTo(i < 2 ? 2 : 1));
+		}
+
+		assertThat(hedgedCalls.hedges.getCount(), equalTo(2L));
+		assertThat(hedgedCalls.overBudget.getCount(), equalTo(1L));
+	}
+
+	@Test
+	void testInterruptedCallerAbandonsTheCall() throws InterruptedException {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		CountDownLatch running = new CountDownLatch(1);
+		AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+		// As @Timeout does, interrupt the caller while it waits
+		Thread caller = Thread.ofVirtual().start(() -> {
+			try {
+				hedgedCalls.call(() -> {
+					running.countDown();
+					return sleep(SLOW, "first", interrupted);
+				});
+			} catch (RuntimeException e) {
+				failure.set(e);
+			}
+		});
+		assertThat(running.await(5, TimeUnit.SECONDS), equalTo(true));
+		caller.interrupt();
+		caller.join(TimeUnit.SECONDS.toMillis(5));
+
+		assertThat(failure.get() instanceof CancellationException, equalTo(true));
+		assertThat(interrupted.await(5, TimeUnit.SECONDS), equalTo(true));
+	}
+
+	private static String sleep(long millis, String result, CountDownLatch interrupted) {
+		try {
+			Thread.sleep(millis);
+			return result;
+		} catch (InterruptedException e) {
+			if (interrupted != null) {
+				interrupted.countDown();
+			}
+			throw new IllegalStateException(e);
+		}
+	}
+}
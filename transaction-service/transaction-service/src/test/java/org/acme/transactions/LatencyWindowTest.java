@@ -0,0 +1,37 @@
+package org.acme.transactions;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyWindowTest {
+
+	@Test
+	void testPercentileOfRecordedCalls() {
+		LatencyWindow window = new LatencyWindow(100);
+		for (long i = 1; i <= 100; i++) {
+			window.record(i);
+		}
+		assertThat(window.percentile(0.95), equalTo(95L));
+		assertThat(window.percentile(0.5), equalTo(50L));
+	}
+
+	@Test
+	void testOnlyKeepsTheLastCalls() {
+		LatencyWindow window = new LatencyWindow(10);
+		for (int i = 0; i < 10; i++) {
+			window.record(1000);
+		}
+		for (int i = 0; i < 10; i++) {
+			window.record(1);
+		}
+		assertThat(window.count(), equalTo(10));
+		assertThat(window.percentile(0.95), equalTo(1L));
+	}
+
+	@Test
+	void testEmptyWindow() {
+		assertThat(new LatencyWindow(10).percentile(0.95), equalTo(0L));
+	}
+}
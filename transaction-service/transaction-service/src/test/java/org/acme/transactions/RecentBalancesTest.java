@@ -0,0 +1,130 @@
+package org.acme.transactions;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.metrics.MetricsRegistryImpl;
+import jakarta.ws.rs.core.Response;
+
+public class RecentBalancesTest {
+
+	@Test
+	void testStaleHitAnswersAndRefreshesOnce() {
+		AtomicInteger lookups = new AtomicInteger();
+		QueuedExecutor refreshes = new QueuedExecutor();
+		RecentBalances recentBalances = recentBalances(
+				() -> new BigDecimal(lookups.incrementAndGet() == 1 ? "10.00" : "20.00"), refreshes);
+
+		assertThat(recentBalances.getBalance(444666L).getEntity(), equalTo("10.00"));
+
+		// Stale right away: both reads answer the cached balance, and only the first starts a refresh
+		Response stale = recentBalances.getBalance(444666L);
+		assertThat(stale.getEntity(), equalTo("10.00"));
+		assertThat(stale.getHeaderString(RecentBalances.AGE_HEADER), notNullValue());
+		assertThat(recentBalances.getBalance(444666L).getEntity(), equalTo("10.00"));
+		assertThat(refreshes.tasks.size(), equalTo(1));
+		assertThat(lookups.get(), equalTo(1));
+
+		refreshes.runAll();
+		assertThat(lookups.get(), equalTo(2));
+		assertThat(recentBalances.getBalance(444666L).getEntity(), equalTo("20.00"));
+	}
+
+	@Test
+	void testTransactionEvictsTheBalance() {
+		AtomicInteger lookups = new AtomicInteger();
+		RecentBalances[] holder = new RecentBalances[1];
+		RecentBalances recentBalances = recentBalances(() -> {
+			if (lookups.incrementAndGet() == 2) {
+				// A transaction completes while this lookup is under way, so its answer may predate it
+				holder[0].evict(444666L);
+			}
+			return new BigDecimal(lookups.get() + ".00");
+		}, new QueuedExecutor());
+		holder[0] = recentBalances;
+
+		assertThat(recentBalances.getBalance(444666L).getEntity(), equalTo("1.00"));
+		recentBalances.evict(444666L);
+
+		Response evicted = recentBalances.getBalance(444666L);
+		assertThat(evicted.getEntity(), equalTo("2.00"));
+		assertThat(evicted.getHeaderString(RecentBalances.AGE_HEADER), nullValue());
+		// The lookup overlapping the transaction was not cached
+		assertThat(recentBalances.getBalance(444666L).getEntity(), equalTo("3.00"));
+		assertThat(recentBalances.getBalance(444666L).getEntity(), equalTo("3.00"));
+	}
+
+	private static RecentBalances recentBalances(Supplier<BigDecimal> balances, QueuedExecutor refreshes) {
+		MetricRegistry registry = new MetricsRegistryImpl();
+		RecentBalances recentBalances = new RecentBalances();
+		recentBalances.maxSize = 10;
+		recentBalances.freshFor = Duration.ZERO;
+		recentBalances.staleFor = Duration.ofHours(1);
+		recentBalances.maxAge = Duration.ofHours(1);
+		recentBalances.metricRegistry = registry;
+		recentBalances.servedAge = registry.histogram("balanceCacheAge");
+		recentBalances.refreshFailures = registry.counter("balanceCacheRefreshFailures");
+		recentBalances.refreshes = refreshes;
+		recentBalances.balanceLookups = new BalanceLookups() {
+			@Override
+			public BigDecimal getBalance(Long accountNumber) {
+				return balances.get();
+			}
+		};
+		return recentBalances;
+	}
+
+	// Holds the background refreshes until the test runs them
+	private static class QueuedExecutor extends AbstractExecutorService {
+		final List<Runnable> tasks = new ArrayList<>();
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		void runAll() {
+			List<Runnable> queued = new ArrayList<>(tasks);
+			tasks.clear();
+			queued.forEach(Runnable::run);
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return List.of();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return false;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return false;
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package org.acme.transactions;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.net.SocketException;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.junit.jupiter.api.Test;
+
+import jakarta.ws.rs.WebApplicationException;
+
+public class TransactionServiceFallbackHandlerTest {
+
+	@Test
+	void testEveryUnavailabilityServesCachedBalances() {
+		assertThat(TransactionServiceFallbackHandler.accountServiceUnavailable(504, new TimeoutException()), equalTo(true));
+		assertThat(TransactionServiceFallbackHandler.accountServiceUnavailable(503, new CircuitBreakerOpenException()), equalTo(true));
+		assertThat(TransactionServiceFallbackHandler.accountServiceUnavailable(503, new SocketException()), equalTo(true));
+		assertThat(TransactionServiceFallbackHandler.accountServiceUnavailable(502, new WebApplicationException(503)), equalTo(true));
+		assertThat(TransactionServiceFallbackHandler.accountServiceUnavailable(502, new WebApplicationException(500)), equalTo(true));
+	}
+
+	@Test
+	void testClientErrorsAndRejectionsDoNot() {
+		assertThat(TransactionServiceFallbackHandler.accountServiceUnavailable(502, new WebApplicationException(400)), equalTo(false));
+		assertThat(TransactionServiceFallbackHandler.accountServiceUnavailable(429, new RuntimeException()), equalTo(false));
+		assertThat(TransactionServiceFallbackHandler.accountServiceUnavailable(501, new RuntimeException()), equalTo(false));
+	}
+}
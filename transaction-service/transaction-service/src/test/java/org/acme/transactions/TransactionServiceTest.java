@@ -1,16 +1,40 @@
 package org.acme.transactions;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.annotation.Metric;
 import org.junit.jupiter.api.Test;
 
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 
 @QuarkusTest
 @QuarkusTestResource(WiremockAccountService.class)
 public class TransactionServiceTest {
+	@Inject
+	AccountClients accountClients;
+
+	@Inject
+	BalanceLookups balanceLookups;
+
+	@Inject
+	@Metric(name = "balanceLookupsCoalesced", absolute = true)
+	Counter coalesced;
+
 	@Test
 	void testTransaction() {
 		given()
@@ -20,4 +44,52 @@ public class TransactionServiceTest {
 		.then()
 		.statusCode(200);
 	}
+
+	@Test
+	void testProgrammaticClientIsShared() {
+		for (int i = 0; i < 3; i++) {
+			given()
+			.body("142.12")
+			.contentType(ContentType.JSON)
+			.when().post("/transactions/api/async/{accountNumber}", 121212)
+			.then()
+			.statusCode(204);
+		}
+		assertThat(accountClients.getClientCount(), equalTo(1L));
+	}
+
+	@Test
+	void testConcurrentBalanceLookupsShareOneCall() throws Exception {
+		// The stub for 123456 answers after 200 ms, so all lookups start while the first is in flight
+		long before = coalesced.getCount();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<BigDecimal>> balances = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				balances.add(executor.submit(() -> balanceLookups.getBalance(123456L)));
+			}
+			for (Future<BigDecimal> balance : balances) {
+				assertThat(balance.get(), equalTo(new BigDecimal("435.76")));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(coalesced.getCount() - before, greaterThan(0L));
+	}
+
+	@Test
+	void testTimeoutFallsBackToRecentBalance() {
+		given()
+		.when().get("/transactions/{accountNumber}/balance", 246810)
+		.then()
+		.statusCode(200)
+		.body(equalTo("512.34"));
+
+		given()
+		.when().get("/transactions/{accountNumber}/balance", 246810)
+		.then()
+		.statusCode(200)
+		.header(RecentBalances.AGE_HEADER, notNullValue())
+		.body(equalTo("512.34"));
+	}
 }
@@ -0,0 +1,69 @@
+package org.acme.transactions;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.junit.jupiter.api.Test;
+
+public class VegasLimitTest {
+	private static final long MILLIS = 1_000_000;
+
+	@Test
+	void testGrowsWhileNothingQueues() {
+		VegasLimit limit = new VegasLimit(10, 200);
+		limit.update(5 * MILLIS, 10, false);
+		for (int i = 0; i < 10; i++) {
+			limit.update(5 * MILLIS, limit.limit(), false);
+		}
+		assertThat(limit.limit(), greaterThan(10));
+	}
+
+	@Test
+	void testShrinksOnceCallsQueue() {
+		VegasLimit limit = new VegasLimit(50, 200);
+		limit.update(5 * MILLIS, 50, false);
+		limit.update(50 * MILLIS, 50, false);
+		assertThat(limit.limit(), lessThan(50));
+	}
+
+	@Test
+	void testShrinksOnFailure() {
+		VegasLimit limit = new VegasLimit(10, 200);
+		limit.update(5 * MILLIS, 10, false);
+		limit.update(5 * MILLIS, 1, true);
+		assertThat(limit.limit(), equalTo(9));
+	}
+
+	@Test
+	void testFastFailuresAreNotTheNoLoadLatency() {
+		VegasLimit limit = new VegasLimit(10, 200);
+		limit.update(MILLIS / 10, 10, true);
+		assertThat(limit.limit(), equalTo(9));
+		for (int i = 0; i < 5; i++) {
+			limit.update(5 * MILLIS, limit.limit(), false);
+		}
+		assertThat(limit.limit(), greaterThan(9));
+	}
+
+	@Test
+	void testHoldsWithoutEnoughTraffic() {
+		VegasLimit limit = new VegasLimit(10, 200);
+		limit.update(5 * MILLIS, 1, false);
+		limit.update(5 * MILLIS, 2, false);
+		assertThat(limit.limit(), equalTo(10));
+	}
+
+	@Test
+	void testStaysWithinBounds() {
+		VegasLimit limit = new VegasLimit(10, 12);
+		limit.update(5 * MILLIS, 10, false);
+		limit.update(5 * MILLIS, 10, false);
+		assertThat(limit.limit(), equalTo(12));
+		for (int i = 0; i < 100; i++) {
+			limit.update(5 * MILLIS, 1, true);
+		}
+		assertThat(limit.limit(), equalTo(1));
+	}
+}
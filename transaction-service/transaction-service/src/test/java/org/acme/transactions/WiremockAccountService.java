@@ -1,6 +1,5 @@
 package org.acme.transactions;
 
-import java.util.Collections;
 import java.util.Map;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
@@ -22,6 +21,7 @@ public class WiremockAccountService implements QuarkusTestResourceLifecycleManag
 	private static final String CB_OPEN_3 = "CB Open 3";
 	private static final String CB_SUCCESS_1 = "CB Success 1";
 	private static final String CB_SUCCESS_2 = "CB Success 2";
+	private static final String SLOW = "Slow";
 
 	@Override
 	public Map<String, String> start() {
@@ -31,6 +31,7 @@ public class WiremockAccountService implements QuarkusTestResourceLifecycleManag
 		mockAccountService();
 		mockTimeout();
 		mockCircuitBreaker();
+		mockSlowAfterFirst();
 
 		stubFor(get(urlEqualTo("/accounts/121212/balance"))
 				.willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("435.76")));
@@ -38,7 +39,8 @@ public class WiremockAccountService implements QuarkusTestResourceLifecycleManag
 		stubFor(post(urlEqualTo("/accounts/121212/transaction"))
 				.willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("{}")));
 
-		return Collections.singletonMap("io.quarkus.transactions.AccountService/mp-rest/url", wireMockServer.baseUrl());
+		return Map.of("io.quarkus.transactions.AccountService/mp-rest/url", wireMockServer.baseUrl(),
+				"account.service", wireMockServer.baseUrl());
 	}
 
 	protected void mockAccountService() {
@@ -57,6 +59,16 @@ public class WiremockAccountService implements QuarkusTestResourceLifecycleManag
 				aResponse().withHeader("Content-Type", "application/json").withStatus(200).withBody("435.76")));
 	}
 
+	// Answers once, then too slowly for the getBalance @Timeout, so the fallback has to use the first answer
+	void mockSlowAfterFirst() {
+		stubFor(get(urlEqualTo("/accounts/246810/balance")).inScenario("recent balance")
+				.whenScenarioStateIs(Scenario.STARTED).willSetStateTo(SLOW)
+				.willReturn(aResponse().withHeader("Content-Type", "application/json").withBody("512.34")));
+		stubFor(get(urlEqualTo("/accounts/246810/balance")).inScenario("recent balance")
+				.whenScenarioStateIs(SLOW)
+				.willReturn(aResponse().withHeader("Content-Type", "application/json").withFixedDelay(500).withBody("0.00")));
+	}
+
 	void mockCircuitBreaker() {
 
 		createCircuitBreakerStub(Scenario.STARTED, SERVER_ERROR_1, "100.00", 200);